@@ -0,0 +1,85 @@
+package com.ashok.auth_api.benchmark;
+
+import com.ashok.auth_api.utils.CsvStreamReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV import parsing over a generated file of {@link #sizeMb} MB, read from disk the way an
+ * upload is: the old {@code readLine}/{@code split(",")}/{@code trim} loop against
+ * {@link CsvStreamReader}. Scored per file; the default size keeps the suite quick, pass
+ * {@code -PjmhArgs='-p sizeMb=4096'} for a multi-GB run (the file is written to the temp
+ * directory and deleted afterwards).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvParsingBenchmark {
+
+    @Param({"64"})
+    public int sizeMb;
+
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("csv-benchmark-", ".csv");
+        long targetBytes = sizeMb * 1024L * 1024L;
+        long written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("username,email,password\n");
+            for (int i = 0; written < targetBytes; i++) {
+                String line = "user" + i + ", user" + i + "@example.com ,secret" + i + "\n";
+                writer.write(line);
+                written += line.length();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void splitAndTrim(Blackhole blackhole) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file)))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                if (fields.length < 3) {
+                    continue;
+                }
+                blackhole.consume(fields[0].trim());
+                blackhole.consume(fields[1].trim());
+                blackhole.consume(fields[2].trim());
+            }
+        }
+    }
+
+    @Benchmark
+    public void csvStreamReader(Blackhole blackhole) throws IOException {
+        try (InputStream in = Files.newInputStream(file);
+             CsvStreamReader reader = CsvStreamReader.open(in, "username", "email", "password")) {
+            while (reader.next()) {
+                blackhole.consume(reader.get(0).trim());
+                blackhole.consume(reader.get(1).trim());
+                blackhole.consume(reader.get(2).trim());
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ashok.auth_api.benchmark;
+
+import com.ashok.auth_api.utils.ExcelStreamReader;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming read of an .xlsx upload through {@link ExcelStreamReader}, scored per
+ * workbook of {@link #rows} data rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExcelParsingBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    private File file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("excel-benchmark-", ".xlsx").toFile();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        try (OutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("username");
+            header.createCell(1).setCellValue("email");
+            header.createCell(2).setCellValue("password");
+            for (int i = 1; i <= rows; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("user" + i);
+                row.createCell(1).setCellValue("user" + i + "@example.com");
+                row.createCell(2).setCellValue("secret" + i);
+            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Benchmark
+    public void readFirstSheet(Blackhole blackhole) throws IOException {
+        ExcelStreamReader.readFirstSheet(file, blackhole::consume);
+    }
+}
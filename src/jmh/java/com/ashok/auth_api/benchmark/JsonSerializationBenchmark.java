@@ -0,0 +1,43 @@
+package com.ashok.auth_api.benchmark;
+
+import com.ashok.auth_api.dto.UserResponseDTO;
+import com.ashok.auth_api.utils.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a dashboard-sized {@code ApiResponse<List<UserResponseDTO>>}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    public int users;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ApiResponse<List<UserResponseDTO>> response;
+
+    @Setup
+    public void setup() {
+        List<UserResponseDTO> page = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            page.add(new UserResponseDTO((long) i, "user" + i, "user" + i + "@example.com",
+                    "$2a$10$abcdefghijklmnopqrstuuN0ZhO1u1mB2S0pA1sBvG8kq1r2y3z4K"));
+        }
+        response = new ApiResponse<>(200, "Fetched users", page);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
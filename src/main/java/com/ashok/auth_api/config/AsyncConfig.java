@@ -0,0 +1,28 @@
+package com.ashok.auth_api.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors for work that should not hold a servlet thread.
+ */
+@Configuration
+public class AsyncConfig {
+
+    public static final String IMPORT_HASHING_EXECUTOR = "importHashingExecutor";
+
+    /**
+     * Runs BCrypt for bulk imports, shared by every import that is running so that two of
+     * them together still use no more than {@code app.import.hash-threads}. The queue is not
+     * bounded here: each import already limits the chunks it has in flight.
+     */
+    @Bean(name = IMPORT_HASHING_EXECUTOR)
+    public ThreadPoolTaskExecutor importHashingExecutor(ImportProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(properties.getHashThreads(), 1));
+        executor.setMaxPoolSize(Math.max(properties.getHashThreads(), 1));
+        executor.setThreadNamePrefix("user-import-hash-");
+        return executor;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ashok.auth_api.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on Spring's cache abstraction. The {@code CacheManager} itself is auto-configured
+ * from {@code spring.cache.*}: Caffeine in production, anything else (e.g. {@code none} or
+ * {@code simple}) can be swapped in through properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,26 @@
+package com.ashok.auth_api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sizing of the in-memory email Bloom filter, bound from {@code app.email-filter.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.email-filter")
+public class EmailFilterProperties {
+
+    /** When false the filter is never built and every email goes to the database. */
+    private boolean enabled = true;
+
+    /** Minimum number of emails the filter is sized for. */
+    private long expectedInsertions = 1_000_000;
+
+    /** Target false-positive rate at {@code expectedInsertions}. */
+    private double falsePositiveRate = 0.01;
+
+    /** Build the filter from the users table once the application has started. */
+    private boolean buildOnStartup = true;
+}
@@ -0,0 +1,58 @@
+package com.ashok.auth_api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Tuning for the CSV/Excel bulk imports, bound from {@code app.import.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.import")
+public class ImportProperties {
+
+    /** Number of users written per JDBC batch. */
+    private int batchSize = 500;
+
+    /** Threads running BCrypt, shared by all running imports; defaults to one per available core. */
+    private int hashThreads = Runtime.getRuntime().availableProcessors();
+
+    /** Chunks that may wait between the hashing and writing stages before parsing blocks. */
+    private int queueCapacity = 4;
+
+    /** Largest a .gz or .zip upload may expand to before the import is aborted. */
+    private DataSize maxDecompressedSize = DataSize.ofGigabytes(1);
+
+    /** How long the resume point of an unfinished or finished import is kept. */
+    private Duration checkpointRetention = Duration.ofDays(7);
+
+    /**
+     * How long an import holds its file's checkpoint without committing a chunk. A second
+     * upload of the same file is rejected until then, so a crashed import blocks it no longer.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(5);
+
+    private final Jobs jobs = new Jobs();
+
+    @Getter
+    @Setter
+    public static class Jobs {
+
+        /** Background imports that may run at the same time. */
+        private int maxConcurrent = 2;
+
+        /** Accepted imports waiting for a free slot; further uploads are rejected with 503. */
+        private int queueCapacity = 10;
+
+        /** Directory uploads are spooled to until their import has finished. */
+        private Path spoolDir = Path.of(System.getProperty("java.io.tmpdir"), "auth-api-imports");
+
+        /** How long a finished job stays available for polling. */
+        private Duration retention = Duration.ofHours(1);
+    }
+}
@@ -0,0 +1,32 @@
+package com.ashok.auth_api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Latency metrics, all exposed on {@code /actuator/prometheus} as histograms so percentiles
+ * can be computed across instances:
+ * <ul>
+ *     <li>{@code http.server.requests}: per controller handler (uri, method, status, outcome),
+ *     recorded by Spring Boot;</li>
+ *     <li>{@code service.method.invocations}: per service method, recorded here;</li>
+ *     <li>{@code spring.data.repository.invocations}: per repository method, recorded by
+ *     Spring Boot.</li>
+ * </ul>
+ * Request and error rates are the counts of these histograms by outcome.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+        advisor.setExpression("execution(public * com.ashok.auth_api.service.interfaces.*Service+.*(..))");
+        advisor.setAdvice(new MethodTimingInterceptor("service.method.invocations", meterRegistry::getObject));
+        return advisor;
+    }
+}
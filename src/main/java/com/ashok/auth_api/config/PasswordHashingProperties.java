@@ -0,0 +1,28 @@
+package com.ashok.auth_api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Admission control for request-time BCrypt work, bound from {@code app.password-hashing.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.password-hashing")
+public class PasswordHashingProperties {
+
+    /** Hashes that may run at once; one per core keeps the rest of the API responsive. */
+    private int maxConcurrent = Runtime.getRuntime().availableProcessors();
+
+    /** Requests that may wait for a permit; beyond this they are rejected straight away. */
+    private int maxWaiting = Runtime.getRuntime().availableProcessors() * 4;
+
+    /** How long a request may wait for a permit before it is rejected. */
+    private Duration maxWait = Duration.ofMillis(500);
+
+    /** Value of the {@code Retry-After} header on rejected requests. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
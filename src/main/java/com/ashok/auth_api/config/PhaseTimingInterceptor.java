@@ -0,0 +1,39 @@
+package com.ashok.auth_api.config;
+
+import com.ashok.auth_api.utils.RequestTimings;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Adds the time spent in intercepted methods to one phase of the current request's
+ * {@link RequestTimings}. Calls made outside a request are not timed.
+ */
+public class PhaseTimingInterceptor implements MethodInterceptor {
+
+    private final RequestTimings.Phase phase;
+
+    public PhaseTimingInterceptor(RequestTimings.Phase phase) {
+        this.phase = phase;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null) {
+            return invocation.proceed();
+        }
+        if (!timings.enter(phase)) {
+            try {
+                return invocation.proceed();
+            } finally {
+                timings.leave(phase);
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            timings.exit(phase, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.ashok.auth_api.config;
+
+import com.ashok.auth_api.utils.RequestTimings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Feeds the service and repository layers into the per-request {@link RequestTimings}
+ * reported by {@link ServerTimingFilter}. JWT parsing and BCrypt are timed where they run.
+ */
+@Configuration
+public class ServerTimingConfig {
+
+    @Bean
+    public static Advisor serviceServerTimingAdvisor() {
+        return advisor("execution(public * com.ashok.auth_api.service.interfaces.*Service+.*(..))",
+                RequestTimings.Phase.SERVICE);
+    }
+
+    @Bean
+    public static Advisor repositoryServerTimingAdvisor() {
+        // derived queries live on the Spring Data interfaces, custom fragments in our package
+        return advisor("execution(public * org.springframework.data.repository.Repository+.*(..))"
+                        + " || execution(public * com.ashok.auth_api.repository..*.*(..))",
+                RequestTimings.Phase.DB);
+    }
+
+    private static Advisor advisor(String expression, RequestTimings.Phase phase) {
+        AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+        advisor.setExpression(expression);
+        advisor.setAdvice(new PhaseTimingInterceptor(phase));
+        return advisor;
+    }
+}
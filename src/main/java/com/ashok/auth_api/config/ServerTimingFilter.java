@@ -0,0 +1,125 @@
+package com.ashok.auth_api.config;
+
+import com.ashok.auth_api.security.SecurityConfig;
+import com.ashok.auth_api.utils.RequestTimings;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Adds a {@code Server-Timing} header to {@code /api} responses when
+ * {@code app.server-timing.enabled} is set, breaking the request down into JWT parsing,
+ * service, repository, BCrypt and serialization time, and logs the same breakdown for
+ * requests slower than {@code app.server-timing.log-threshold}.
+ * <p>
+ * The header is never added on the endpoints reachable without a token: on login, time
+ * spent in BCrypt would tell a caller whether the account exists. Their slow requests are
+ * still logged.
+ * <p>
+ * Runs ahead of the Spring Security chain so JWT parsing is inside the measured window. The
+ * header can only be set once serialization has finished, so a response that gets it has
+ * its body buffered and written out after the chain returns; the streaming endpoints are
+ * skipped for that reason. A response that is only timed for the log is written straight
+ * through. The async login handler is completed on the async dispatch, which picks the
+ * request's timings and any response buffer back up.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+    private static final String TIMINGS_ATTRIBUTE = ServerTimingFilter.class.getName() + ".TIMINGS";
+    private static final Set<String> PUBLIC_PATHS = Set.of(SecurityConfig.PUBLIC_API_PATHS);
+
+    private final ServerTimingProperties properties;
+
+    public ServerTimingFilter(ServerTimingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = path(request);
+        boolean logging = !properties.getLogThreshold().isZero();
+        return !(properties.isEnabled() || logging)
+                || !path.startsWith("/api/")
+                || path.equals("/api/users/stream")
+                || path.equals("/api/users/export");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestTimings timings;
+        ContentCachingResponseWrapper bufferedResponse = null;
+        if (isAsyncDispatch(request)) {
+            timings = (RequestTimings) request.getAttribute(TIMINGS_ATTRIBUTE);
+            if (timings == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            if (addsHeader(request)) {
+                bufferedResponse = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            }
+        } else {
+            timings = new RequestTimings();
+            request.setAttribute(TIMINGS_ATTRIBUTE, timings);
+            if (addsHeader(request)) {
+                bufferedResponse = new ContentCachingResponseWrapper(response);
+            }
+        }
+
+        // the async dispatch is handed the wrapper the request started with
+        boolean wrap = bufferedResponse != null && !isAsyncDispatch(request);
+        RequestTimings.bind(timings);
+        try {
+            filterChain.doFilter(request, wrap ? bufferedResponse : response);
+        } finally {
+            RequestTimings.unbind();
+            if (!isAsyncStarted(request)) {
+                complete(request, response, bufferedResponse, timings);
+            }
+        }
+    }
+
+    private void complete(HttpServletRequest request, HttpServletResponse response,
+                          ContentCachingResponseWrapper bufferedResponse, RequestTimings timings) throws IOException {
+        long end = System.nanoTime();
+        timings.finishSerialization(end);
+        if (bufferedResponse != null) {
+            bufferedResponse.setHeader(HEADER, timings.toServerTimingHeader(end));
+            bufferedResponse.copyBodyToResponse();
+        }
+
+        long thresholdNanos = properties.getLogThreshold().toNanos();
+        if (thresholdNanos > 0 && end - timings.getStartNanos() >= thresholdNanos && log.isWarnEnabled()) {
+            log.warn("slow request method={} uri={} status={} {}", request.getMethod(),
+                    request.getRequestURI(), response.getStatus(), timings.toLogFields(end));
+        }
+    }
+
+    private boolean addsHeader(HttpServletRequest request) {
+        return properties.isEnabled() && !PUBLIC_PATHS.contains(path(request));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
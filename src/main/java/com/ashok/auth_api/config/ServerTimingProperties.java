@@ -0,0 +1,26 @@
+package com.ashok.auth_api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Per-request phase timing, bound from {@code app.server-timing.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.server-timing")
+public class ServerTimingProperties {
+
+    /**
+     * Whether {@code /api} responses carry a {@code Server-Timing} header. Off by default: it
+     * is a diagnostic aid, and the phase breakdown tells a client more than the response does.
+     * Endpoints reachable without a token never carry it.
+     */
+    private boolean enabled = false;
+
+    /** Requests slower than this are logged with their phase breakdown; zero disables the log. */
+    private Duration logThreshold = Duration.ZERO;
+}
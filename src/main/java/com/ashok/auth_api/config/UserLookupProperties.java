@@ -0,0 +1,29 @@
+package com.ashok.auth_api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limits of user lookups, bound from {@code app.users.lookup.*}: the multi-get
+ * ({@code GET /api/users?ids=}) and the coalesced lookups by id and email.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.users.lookup")
+public class UserLookupProperties {
+
+    /**
+     * Most ids one request may ask for; they all go into a single {@code IN} list, so this
+     * also bounds the size of that query.
+     */
+    private int maxIds = 500;
+
+    /**
+     * How long a lookup may wait for an identical one already running before it gives up
+     * with a 503; also sent as {@code Retry-After}, rounded up to whole seconds.
+     */
+    private Duration singleFlightMaxWait = Duration.ofSeconds(2);
+}
@@ -1,18 +1,26 @@
 package com.ashok.auth_api.controller;
 
 import com.ashok.auth_api.dto.*;
+import com.ashok.auth_api.exceptions.UnsupportedExportFormatException;
 import com.ashok.auth_api.security.JwtUtil;
+import com.ashok.auth_api.service.interfaces.ImportJobService;
+import com.ashok.auth_api.service.interfaces.UserExportService;
 import com.ashok.auth_api.service.interfaces.UserService;
 import com.ashok.auth_api.utils.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
 
 
 @CrossOrigin(origins = "http://localhost:4200")
@@ -23,31 +31,39 @@ public class UserController {
     private UserService userService;
     @Autowired
     private JwtUtil jwtUtil;
+    @Autowired
+    private ImportJobService importJobService;
+    @Autowired
+    private UserExportService userExportService;
 
     @PostMapping("/signup")
     @Operation(summary = "Register new user", description = "Registers a new user with username, email, and password.")
     public ResponseEntity<ApiResponse<SignupResponseDTO>> signup(@RequestBody SignupRequestDTO dto) {
-       ApiResponse<SignupResponseDTO> response = userService.register(dto);
-       return ResponseEntity.status(response.getStatus()).body(response);
+        // the insert needs the hash, so this thread waits for the hashing pool; a full queue is a 503
+        ApiResponse<SignupResponseDTO> response = userService.register(dto);
+        return ResponseEntity.status(response.getStatus()).body(response);
     }
 
     @PostMapping("/login")
     @Operation(summary = "User login", description = "Authenticates a user and returns a JWT token if successful.")
-    public ResponseEntity<ApiResponse<LoginResponseDTO>> login(@RequestBody LoginRequestDTO dto) {
-        ApiResponse<LoginResponseDTO> resp = userService.login(dto);
-        return ResponseEntity.status(resp.getStatus()).body(resp);
+    public CompletableFuture<ResponseEntity<ApiResponse<LoginResponseDTO>>> login(@RequestBody LoginRequestDTO dto) {
+        // BCrypt runs on the hashing pool, so the request thread goes back to Tomcat after the lookup
+        return userService.login(dto)
+                .thenApply(resp -> ResponseEntity.status(resp.getStatus()).body(resp));
     }
 
     @GetMapping("/dashboard")
-    @Operation(summary = "Fetch dashboard data", description = "Returns a list of all registered users. Requires Authorization header with JWT token.")
-    public ResponseEntity<ApiResponse<List<UserResponseDTO>>> dashboard(@RequestHeader("Authorization") String authHeader) {
-        ApiResponse<List<UserResponseDTO>> response = userService.getDashboardData(authHeader);
+    @Operation(summary = "Fetch dashboard data", description = "Returns registered users one page at a time, ordered by id. Pass the returned nextCursor as 'after' to fetch the next page. Requires Authorization header with JWT token.")
+    public ResponseEntity<ApiResponse<UserPageDTO>> dashboard(@RequestHeader("Authorization") String authHeader,
+                                                              @Parameter(description = "Return users with an id greater than this cursor") @RequestParam(required = false) Long after,
+                                                              @Parameter(description = "Page size, 1 to 1000 (default 100)") @RequestParam(required = false) Integer limit) {
+        ApiResponse<UserPageDTO> response = userService.getDashboardData(authHeader, after, limit);
         return ResponseEntity.status(response.getStatus()).body(response);
     }
 
     //@PostMapping("/upload-excel")
     @PostMapping(value = "/upload-excel", consumes = "multipart/form-data")
-    @Operation(summary = "Upload Excel file", description = "Registers multiple users from uploaded Excel file (.xlsx).")
+    @Operation(summary = "Upload Excel file", description = "Registers multiple users from uploaded Excel file (.xlsx, .xlsx.gz or a .zip containing one).")
     public ResponseEntity<ApiResponse<String>> registerFromExcel(
             @Parameter(description = "Upload Excel file") @RequestParam("file") MultipartFile file) {
         ApiResponse<String> response = userService.registerUsersFromExcel(file);
@@ -55,12 +71,56 @@ public class UserController {
     }
     //@PostMapping("/upload-csv")
     @PostMapping(value = "/upload-csv", consumes = "multipart/form-data")
-    @Operation(summary = "Upload CSV file", description = "Registers multiple users from uploaded CSV file.")
+    @Operation(summary = "Upload CSV file", description = "Registers multiple users from uploaded CSV file (.csv, .csv.gz or a .zip containing one), decompressed while it is parsed.")
     public ResponseEntity<ApiResponse<String>> registerFromCSV(@Parameter(description = "upload CSV file") @RequestParam("file") MultipartFile file){
         ApiResponse<String> response = userService.registerUsersFromCSV(file);
         return ResponseEntity.status(response.getStatus()).body(response);
     }
 
+    @PostMapping(value = "/import-jobs", consumes = "multipart/form-data")
+    @Operation(summary = "Start import job", description = "Stores the uploaded CSV or Excel file and registers its users in the background. Returns a job id to poll.")
+    public ResponseEntity<ApiResponse<ImportJobStatusDTO>> startImportJob(
+            @Parameter(description = "Upload CSV or Excel file") @RequestParam("file") MultipartFile file) {
+        ApiResponse<ImportJobStatusDTO> response = importJobService.submitImport(file);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @GetMapping("/import-jobs/{id}")
+    @Operation(summary = "Import job progress", description = "Returns rows parsed, inserted and skipped so far, throughput and estimated time remaining.")
+    public ResponseEntity<ApiResponse<ImportJobStatusDTO>> getImportJob(@PathVariable String id) {
+        ApiResponse<ImportJobStatusDTO> response = importJobService.getImportJob(id);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @GetMapping(value = "/users/stream", produces = "application/x-ndjson")
+    @Operation(summary = "Stream all users", description = "Streams every user as newline-delimited JSON (one object per line), read from the database in batches.")
+    public void streamUsers(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        userExportService.streamUsersAsNdjson(response.getOutputStream());
+    }
+
+    @GetMapping("/users/export")
+    @Operation(summary = "Export users", description = "Downloads all users as an Excel workbook (format=xlsx) or CSV file (format=csv), streamed from the database.")
+    public void exportUsers(
+            @Parameter(description = "xlsx or csv") @RequestParam(defaultValue = "xlsx") String format,
+            HttpServletResponse response) throws IOException {
+        switch (format.toLowerCase(Locale.ROOT)) {
+            case "xlsx" -> {
+                response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+                response.setHeader("Content-Disposition", "attachment; filename=\"users.xlsx\"");
+                userExportService.exportUsersAsExcel(response.getOutputStream());
+            }
+            case "csv" -> {
+                response.setContentType("text/csv");
+                response.setCharacterEncoding("UTF-8");
+                response.setHeader("Content-Disposition", "attachment; filename=\"users.csv\"");
+                userExportService.exportUsersAsCsv(response.getOutputStream());
+            }
+            default -> throw new UnsupportedExportFormatException(format);
+        }
+    }
+
     @DeleteMapping("/users/{id}")
     @Operation(summary = "Delete user", description = "Deletes a user by ID.")
     public ResponseEntity<ApiResponse<DeleteUserResponseDTO>> deleteUser(@PathVariable Long id){
@@ -81,6 +141,19 @@ public class UserController {
         ApiResponse<ViewUserResponseDTO> response = userService.getUserById(id);
         return ResponseEntity.status(response.getStatus()).body(response);
     }
+    @GetMapping("/users")
+    @Operation(summary = "View users by IDs", description = "Fetches many users with one query. Results follow the order of 'ids'; an id with no user comes back with found=false.")
+    public ResponseEntity<ApiResponse<List<UserLookupDTO>>> getUsersByIds(
+            @Parameter(description = "Comma-separated user ids, at most app.users.lookup.max-ids") @RequestParam List<Long> ids) {
+        ApiResponse<List<UserLookupDTO>> response = userService.getUsersByIds(ids);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+    @PostMapping("/users/lookup")
+    @Operation(summary = "View users by IDs (POST)", description = "Same as GET /api/users?ids= with the ids in the request body, for id sets too long for a URL.")
+    public ResponseEntity<ApiResponse<List<UserLookupDTO>>> lookupUsers(@RequestBody UserIdsRequestDTO dto) {
+        ApiResponse<List<UserLookupDTO>> response = userService.getUsersByIds(dto.ids());
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
     @PatchMapping("/users/{id}")
     @Operation(summary = "Patch user", description = "Partially updates user information by ID.")
     public ResponseEntity<ApiResponse<EditUserResponseDTO>> patchUser(
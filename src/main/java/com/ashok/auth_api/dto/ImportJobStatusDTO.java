@@ -0,0 +1,12 @@
+package com.ashok.auth_api.dto;
+
+public record ImportJobStatusDTO(String id,
+                                 String fileName,
+                                 String status,
+                                 long rowsParsed,
+                                 long rowsInserted,
+                                 long rowsSkipped,
+                                 double rowsPerSecond,
+                                 Long etaSeconds,
+                                 String message) {
+}
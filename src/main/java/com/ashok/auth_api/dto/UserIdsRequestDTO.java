@@ -0,0 +1,6 @@
+package com.ashok.auth_api.dto;
+
+import java.util.List;
+
+public record UserIdsRequestDTO(List<Long> ids) {
+}
@@ -0,0 +1,8 @@
+package com.ashok.auth_api.dto;
+
+/**
+ * One requested id of a multi-get. {@code found} is {@code false} and {@code user} is
+ * {@code null} when no user has that id.
+ */
+public record UserLookupDTO(Long id, boolean found, ViewUserResponseDTO user) {
+}
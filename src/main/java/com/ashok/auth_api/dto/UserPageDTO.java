@@ -0,0 +1,10 @@
+package com.ashok.auth_api.dto;
+
+import java.util.List;
+
+/**
+ * One page of users. {@code nextCursor} is the {@code after} value for the next page,
+ * or {@code null} when this is the last page.
+ */
+public record UserPageDTO(List<UserResponseDTO> users, Long nextCursor) {
+}
@@ -0,0 +1,7 @@
+package com.ashok.auth_api.exceptions;
+
+public class ExportTooLargeException extends RuntimeException {
+    public ExportTooLargeException(int maxRows) {
+        super("More than " + maxRows + " users do not fit on one Excel sheet; use format=csv or GET /api/users/stream");
+    }
+}
@@ -2,6 +2,9 @@ package com.ashok.auth_api.exceptions;
 
 import com.ashok.auth_api.utils.ApiResponse;
 import com.ashok.auth_api.utils.HttpStatusCodes;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -13,10 +16,53 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<Object>> handleDuplicateUser(UserAlreadyExistsException ex){
         return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse<>(HttpStatusCodes.CONFLICT,ex.getMessage(),null));
     }
+    /**
+     * Signup, edit and patch turn a taken email into {@link UserAlreadyExistsException}
+     * themselves; any other violation that gets this far is answered without detail.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiResponse<Object>> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ApiResponse<>(HttpStatusCodes.CONFLICT, "Request conflicts with existing data", null));
+    }
+    @ExceptionHandler(ImportInProgressException.class)
+    public ResponseEntity<ApiResponse<Object>> handleImportInProgress(ImportInProgressException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ApiResponse<>(HttpStatusCodes.CONFLICT, ex.getMessage(), null));
+    }
     @ExceptionHandler(InvalidSignupDataException.class)
     public ResponseEntity<ApiResponse<Object>> handleInvalidSignUp(InvalidSignupDataException ex) {
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .body(new ApiResponse<>(HttpStatusCodes.BAD_REQUEST, ex.getMessage(), null));
     }
+    @ExceptionHandler(UnsupportedExportFormatException.class)
+    public ResponseEntity<ApiResponse<Object>> handleUnsupportedExportFormat(UnsupportedExportFormatException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ApiResponse<>(HttpStatusCodes.BAD_REQUEST, ex.getMessage(), null));
+    }
+    /**
+     * Thrown before any of the workbook is written, but after the export set its content type
+     * and attachment headers; those are cleared so the error goes out as JSON.
+     */
+    @ExceptionHandler(ExportTooLargeException.class)
+    public ResponseEntity<ApiResponse<Object>> handleExportTooLarge(ExportTooLargeException ex,
+                                                                    HttpServletResponse response) {
+        if (!response.isCommitted()) {
+            response.reset();
+        }
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ApiResponse<>(HttpStatusCodes.BAD_REQUEST, ex.getMessage(), null));
+    }
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ApiResponse<Object>> handleServiceBusy(ServiceBusyException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ApiResponse<>(HttpStatusCodes.SERVICE_UNAVAILABLE, ex.getMessage(), null));
+    }
 }
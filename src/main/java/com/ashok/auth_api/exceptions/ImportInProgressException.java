@@ -0,0 +1,7 @@
+package com.ashok.auth_api.exceptions;
+
+public class ImportInProgressException extends RuntimeException{
+    public ImportInProgressException(String message){
+        super(message);
+    }
+}
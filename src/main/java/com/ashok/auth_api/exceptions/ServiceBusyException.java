@@ -0,0 +1,13 @@
+package com.ashok.auth_api.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceBusyException extends RuntimeException{
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds){
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,7 @@
+package com.ashok.auth_api.exceptions;
+
+public class UnsupportedExportFormatException extends RuntimeException {
+    public UnsupportedExportFormatException(String format) {
+        super("Unsupported export format: " + format);
+    }
+}
@@ -0,0 +1,42 @@
+package com.ashok.auth_api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * How far a bulk import of one file got. Keyed by the SHA-256 of the uploaded bytes, so
+ * re-uploading the same file after a failure resumes after the last committed row. While an
+ * import runs it holds the checkpoint through {@code claimedUntil}, so a second upload of the
+ * same file cannot run alongside it.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "import_checkpoints")
+public class ImportCheckpoint {
+
+    @Id
+    @Column(name = "file_hash", length = 64)
+    private String fileHash;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    /** Data rows (header excluded) that are fully imported or were skipped. */
+    @Column(name = "rows_committed", nullable = false)
+    private long rowsCommitted;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /** Set while an import runs and renewed with every chunk; {@code null} when none does. */
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+}
@@ -0,0 +1,30 @@
+package com.ashok.auth_api.repository;
+
+import com.ashok.auth_api.model.ImportCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, String> {
+
+   @Modifying
+   @Query("delete from ImportCheckpoint c where c.updatedAt < :cutoff")
+   int deleteUpdatedBefore(@Param("cutoff") Instant cutoff);
+
+   /** Locks the row until the surrounding transaction ends, so two imports cannot both claim it. */
+   @Lock(LockModeType.PESSIMISTIC_WRITE)
+   @Query("select c from ImportCheckpoint c where c.fileHash = :fileHash")
+   Optional<ImportCheckpoint> findForUpdate(@Param("fileHash") String fileHash);
+
+   @Modifying
+   @Query("update ImportCheckpoint c set c.claimedUntil = null where c.fileHash = :fileHash")
+   int releaseClaim(@Param("fileHash") String fileHash);
+}
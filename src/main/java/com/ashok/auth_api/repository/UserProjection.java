@@ -0,0 +1,11 @@
+package com.ashok.auth_api.repository;
+
+/**
+ * Column projection of {@link com.ashok.auth_api.model.User} for bulk reads; rows are
+ * read as plain values and never become managed entities.
+ */
+public interface UserProjection {
+    Long getId();
+    String getUsername();
+    String getEmail();
+}
@@ -1,11 +1,67 @@
 package com.ashok.auth_api.repository;
 
+import com.ashok.auth_api.dto.UserResponseDTO;
+import com.ashok.auth_api.dto.ViewUserResponseDTO;
 import com.ashok.auth_api.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
    Optional<User> findByEmail(String email);
+
+   @Query("select u.email from User u where u.email in :emails")
+   List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+   /** Overwrites every column of one user in a single UPDATE; returns the rows changed, 0 or 1. */
+   @Transactional
+   @Modifying
+   @Query("update User u set u.username = :username, u.email = :email, u.password = :password where u.id = :id")
+   int updateById(@Param("id") Long id, @Param("username") String username,
+                  @Param("email") String email, @Param("password") String password);
+
+   /** Deletes one user in a single DELETE, without loading it first; returns the rows removed, 0 or 1. */
+   @Transactional
+   @Modifying
+   @Query("delete from User u where u.id = :id")
+   int deleteUserById(@Param("id") Long id);
+
+   /** Users with any of the ids, in no particular order; a single {@code IN} query built straight into DTOs. */
+   @Query("select new com.ashok.auth_api.dto.ViewUserResponseDTO(u.id, u.username, u.email) "
+           + "from User u where u.id in :ids")
+   List<ViewUserResponseDTO> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+   /**
+    * Keyset page: seeks past {@code after} on the primary key, so every page costs the
+    * same regardless of depth, and builds DTOs straight from the columns.
+    */
+   @Query("select new com.ashok.auth_api.dto.UserResponseDTO(u.id, u.username, u.email, u.password) "
+           + "from User u where u.id > :after order by u.id")
+   List<UserResponseDTO> findPageAfter(@Param("after") long after, Limit limit);
+
+   /**
+    * All users in id order as a lazily fetched stream. Must be consumed inside a
+    * transaction and closed; with {@code useCursorFetch=true} MySQL sends the rows in
+    * batches of the fetch size instead of materialising the whole result set.
+    */
+   @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+   @Query("select u.id as id, u.username as username, u.email as email from User u order by u.id")
+   Stream<UserProjection> streamAllBy();
+
+   /** Every registered email, streamed with the same cursor fetch as {@link #streamAllBy()}. */
+   @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+   @Query("select u.email from User u")
+   Stream<String> streamAllEmails();
 }
@@ -0,0 +1,20 @@
+package com.ashok.auth_api.repository;
+
+import com.ashok.auth_api.model.User;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Inserts all users with JDBC batching, bypassing the persistence context.
+     * Generated ids are not written back to the given entities.
+     */
+    void batchInsert(List<User> users);
+
+    /**
+     * Sets only the given non-null columns of one user in a single UPDATE and returns the
+     * number of rows changed, 0 or 1. At least one column must be given.
+     */
+    int patchById(Long id, String username, String email, String password);
+}
@@ -0,0 +1,59 @@
+package com.ashok.auth_api.repository;
+
+import com.ashok.auth_api.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * JDBC implementation of {@link UserRepositoryCustom}. Hibernate cannot batch inserts of
+ * entities with IDENTITY ids, so bulk imports go through JdbcTemplate instead; with
+ * {@code rewriteBatchedStatements=true} on the MySQL URL each batch is sent as a single
+ * multi-row INSERT while the column keeps its AUTO_INCREMENT ids.
+ */
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (user_name, email, password) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchInsert(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, users, users.size(), (ps, user) -> {
+            ps.setString(1, user.getUsername());
+            ps.setString(2, user.getEmail());
+            ps.setString(3, user.getPassword());
+        });
+    }
+
+    @Override
+    public int patchById(Long id, String username, String email, String password) {
+        StringJoiner columns = new StringJoiner(", ");
+        List<Object> args = new ArrayList<>(4);
+        if (username != null) {
+            columns.add("user_name = ?");
+            args.add(username);
+        }
+        if (email != null) {
+            columns.add("email = ?");
+            args.add(email);
+        }
+        if (password != null) {
+            columns.add("password = ?");
+            args.add(password);
+        }
+        if (args.isEmpty()) {
+            throw new IllegalArgumentException("A patch must set at least one column");
+        }
+        args.add(id);
+        return jdbcTemplate.update("UPDATE users SET " + columns + " WHERE user_id = ?", args.toArray());
+    }
+}
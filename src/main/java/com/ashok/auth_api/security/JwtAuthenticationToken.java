@@ -0,0 +1,41 @@
+package com.ashok.auth_api.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+
+import java.util.List;
+
+/**
+ * Authentication placed in the security context by {@link JwtAuthenticationFilter}. It
+ * carries the claims verified by the filter so later code never has to parse the token again.
+ */
+public class JwtAuthenticationToken extends AbstractAuthenticationToken {
+
+    private final String token;
+    private final Claims claims;
+
+    public JwtAuthenticationToken(String token, Claims claims) {
+        super(List.of());
+        this.token = token;
+        this.claims = claims;
+        setAuthenticated(true);
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return claims.getSubject();
+    }
+}
@@ -1,9 +1,13 @@
 package com.ashok.auth_api.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
@@ -14,6 +18,21 @@ public class JwtUtil {
 
     private final String secret = "ashokSecretKeyForJwtThatShouldBeLongEnough123";
     private final Key key = Keys.hmacShaKeyFor(secret.getBytes());
+    // JwtParser is immutable and thread-safe, so it is built once instead of per call.
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+    private final VerifiedTokenCache verifiedTokens;
+
+    public JwtUtil() {
+        this(0);
+    }
+
+    /**
+     * @param verifiedCacheSize number of recently verified tokens to remember; 0 disables the cache
+     */
+    @Autowired
+    public JwtUtil(@Value("${app.jwt.verified-cache-size:0}") int verifiedCacheSize) {
+        this.verifiedTokens = verifiedCacheSize > 0 ? new VerifiedTokenCache(verifiedCacheSize) : null;
+    }
 
     public String generateToken(String username) {
         return Jwts.builder()
@@ -24,21 +43,37 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry of the token and returns its claims. This is the
+     * only place a token is parsed; a token found in the verified-token cache skips the
+     * HMAC check and JSON decoding until its own expiry.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseToken(String token) {
+        if (verifiedTokens != null) {
+            Claims cached = verifiedTokens.get(token);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (verifiedTokens != null) {
+            verifiedTokens.put(token, claims);
+        }
+        return claims;
+    }
+
     public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseToken(token).getSubject();
     }
 
     public boolean validateToken(String token) {
         try {
-            extractUsername(token);
+            parseToken(token);
             return true;
         } catch (JwtException e) {
             return false;
         }
     }
-}
\ No newline at end of file
+}
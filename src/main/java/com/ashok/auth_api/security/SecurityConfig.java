@@ -3,15 +3,27 @@ package com.ashok.auth_api.security;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Set;
 
 @Configuration
 public class SecurityConfig {
+    /** API endpoints reachable without a token. */
+    public static final String[] PUBLIC_API_PATHS = {"/api/signup", "/api/login"};
+
+    /** Actuator endpoints Prometheus and health checks reach without a token, on the management port only. */
+    private static final Set<String> SCRAPE_PATHS = Set.of("/actuator/health", "/actuator/prometheus");
+
     @Autowired
     private JwtAuthenticationFilter jwtFilter;
+    @Autowired
+    private Environment environment;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -19,8 +31,10 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         //.requestMatchers("/", "/index.html", "/dashboard.html", "/js/**", "/css/**", "/images/**").permitAll()
                        // .requestMatchers("/api/signup", "/api/login","/api/upload-excel","/api/upload-csv", "/swagger-ui/**", "/v3/api-docs/**","/api/users/{id}").permitAll()
-                        .requestMatchers("/api/signup", "/api/login", "/swagger-ui/**",
-                                "/v3/api-docs/**").permitAll()
+                        .requestMatchers(PUBLIC_API_PATHS).permitAll()
+                        .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        // scraped by Prometheus on management.server.port, which stays off the public network
+                        .requestMatchers(scrapeOnManagementPort()).permitAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -29,6 +43,19 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Matches only requests that arrived on the separate management server. Without one,
+     * the actuator shares the API port and its endpoints need a token like everything else.
+     */
+    private RequestMatcher scrapeOnManagementPort() {
+        return request -> {
+            // set by Spring Boot once the management server has started on its own port
+            Integer managementPort = environment.getProperty("local.management.port", Integer.class);
+            return managementPort != null && request.getLocalPort() == managementPort
+                    && SCRAPE_PATHS.contains(request.getRequestURI());
+        };
+    }
+
     @Bean
     public BCryptPasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -0,0 +1,78 @@
+package com.ashok.auth_api.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded LRU cache of tokens whose signature has already been verified. Entries are keyed
+ * by the SHA-256 of the token, so the raw token is never retained, and they stop being
+ * returned once the token's {@code exp} has passed. Tokens without an expiry are not cached.
+ * <p>
+ * Every authenticated request goes through here, so the map is guarded by a
+ * {@link ReentrantLock} rather than a monitor: on JDK 21 a virtual thread blocked on a
+ * contended {@code synchronized} pins its carrier thread.
+ */
+class VerifiedTokenCache {
+
+    private final Map<ByteBuffer, Entry> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    VerifiedTokenCache(int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ByteBuffer, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    Claims get(String token) {
+        ByteBuffer key = hash(token);
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.claims();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(String token, Claims claims) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        Entry entry = new Entry(claims, claims.getExpiration().getTime());
+        ByteBuffer key = hash(token);
+        lock.lock();
+        try {
+            entries.put(key, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAtMillis) {
+    }
+}
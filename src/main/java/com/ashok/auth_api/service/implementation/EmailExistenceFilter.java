@@ -0,0 +1,196 @@
+package com.ashok.auth_api.service.implementation;
+
+import com.ashok.auth_api.config.EmailFilterProperties;
+import com.ashok.auth_api.utils.BloomFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Negative cache for "is this email registered?". A {@code false} from {@link #mightExist}
+ * is definite, so imports can skip the database lookup and rely on the unique constraint;
+ * {@code true} means the caller still has to ask the database. Signup does not consult it:
+ * it inserts straight away and lets the constraint reject a taken email, but it still adds
+ * what it wrote.
+ * <p>
+ * Until the filter has been built (or when it is disabled) every email "might exist", so
+ * behaviour is exactly as without the filter. Bloom filters cannot forget values: deleted
+ * or changed emails stay in as stale entries and only raise the false-positive rate until
+ * the next {@link #rebuild}.
+ * <p>
+ * Only writes made through this instance are seen; with several application instances the
+ * unique constraint is what keeps the data correct.
+ */
+@Component
+public class EmailExistenceFilter implements MeterBinder {
+
+    private final EmailFilterProperties properties;
+
+    private volatile BloomFilter filter;
+    // receives every add while a rebuild is streaming the table, so none is lost in the swap
+    private BloomFilter rebuilding;
+    // a lock rather than synchronized, so contended adds do not pin virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean rebuildInProgress = new AtomicBoolean();
+
+    private final LongAdder definitelyAbsent = new LongAdder();
+    private final LongAdder mightExist = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final AtomicLong staleEntries = new AtomicLong();
+
+    public EmailExistenceFilter(EmailFilterProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        if (current.mightContain(key(email))) {
+            mightExist.increment();
+            return true;
+        }
+        definitelyAbsent.increment();
+        return false;
+    }
+
+    /** Called with the number of "might exist" answers whose database lookup found nothing. */
+    public void recordFalsePositives(int count) {
+        if (filter != null && count > 0) {
+            falsePositives.add(count);
+        }
+    }
+
+    /** Records a committed insert or email change. */
+    public void add(String email) {
+        String key = key(email);
+        lock.lock();
+        try {
+            putLocked(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void addAll(Collection<String> emails) {
+        lock.lock();
+        try {
+            for (String email : emails) {
+                putLocked(key(email));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Records that an email is no longer in use; it stays in the filter until the next rebuild. */
+    public void markRemoved() {
+        if (filter != null) {
+            staleEntries.incrementAndGet();
+        }
+    }
+
+    /**
+     * Replaces the filter with one built from the stream {@code emails} opens, which must
+     * hold every email committed before it was opened. It is opened only once the new filter
+     * receives every {@link #add}, so an email committed at any point during the rebuild is
+     * in the stream, in the adds, or both. Sized for twice {@code currentCount} (or
+     * {@code expectedInsertions}, whichever is larger) so the table can grow before the
+     * false-positive rate degrades.
+     *
+     * @return false if disabled or another rebuild is already running
+     */
+    public boolean rebuild(long currentCount, Supplier<Stream<String>> emails) {
+        if (!properties.isEnabled() || !rebuildInProgress.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            BloomFilter next = BloomFilter.create(
+                    Math.max(properties.getExpectedInsertions(), currentCount * 2), properties.getFalsePositiveRate());
+            lock.lock();
+            try {
+                rebuilding = next;
+            } finally {
+                lock.unlock();
+            }
+            try (Stream<String> stream = emails.get()) {
+                stream.forEach(email -> next.put(key(email)));
+            }
+            lock.lock();
+            try {
+                filter = next;
+                staleEntries.set(0);
+            } finally {
+                lock.unlock();
+            }
+            return true;
+        } finally {
+            lock.lock();
+            try {
+                rebuilding = null;
+            } finally {
+                lock.unlock();
+            }
+            rebuildInProgress.set(false);
+        }
+    }
+
+    public boolean isReady() {
+        return filter != null;
+    }
+
+    public long getStaleEntries() {
+        return staleEntries.get();
+    }
+
+    public double getCurrentFalsePositiveRate() {
+        BloomFilter current = filter;
+        return current == null ? 1.0 : current.currentFalsePositiveRate();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("email.filter.lookups", definitelyAbsent, LongAdder::sum)
+                .tag("result", "absent")
+                .description("Email checks answered without a database lookup")
+                .register(registry);
+        FunctionCounter.builder("email.filter.lookups", mightExist, LongAdder::sum)
+                .tag("result", "maybe")
+                .description("Email checks that still needed a database lookup")
+                .register(registry);
+        FunctionCounter.builder("email.filter.false.positives", falsePositives, LongAdder::sum)
+                .description("Database lookups after a 'maybe' that found no user")
+                .register(registry);
+        Gauge.builder("email.filter.stale.entries", staleEntries, AtomicLong::get)
+                .description("Deleted or changed emails still in the filter")
+                .register(registry);
+        Gauge.builder("email.filter.fpp", this, EmailExistenceFilter::getCurrentFalsePositiveRate)
+                .description("Estimated false-positive rate at the current fill level")
+                .register(registry);
+    }
+
+    private void putLocked(String key) {
+        if (filter != null) {
+            filter.put(key);
+        }
+        if (rebuilding != null) {
+            rebuilding.put(key);
+        }
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
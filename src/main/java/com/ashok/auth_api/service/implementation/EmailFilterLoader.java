@@ -0,0 +1,67 @@
+package com.ashok.auth_api.service.implementation;
+
+import com.ashok.auth_api.config.EmailFilterProperties;
+import com.ashok.auth_api.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+/**
+ * Fills {@link EmailExistenceFilter} from the users table: once when the application is
+ * ready and on demand through {@code POST /actuator/emailfilter}, e.g. after many deletes.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "emailfilter")
+public class EmailFilterLoader {
+
+    private final UserRepository userRepository;
+    private final EmailExistenceFilter emailFilter;
+    private final EmailFilterProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public EmailFilterLoader(UserRepository userRepository, EmailExistenceFilter emailFilter,
+                             EmailFilterProperties properties, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.emailFilter = emailFilter;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (properties.isEnabled() && properties.isBuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        long start = System.nanoTime();
+        // Counted in its own transaction: the first read of the streaming one fixes its
+        // snapshot, and that must come after the filter has started recording adds.
+        long count = userRepository.count();
+        Boolean rebuilt = readOnlyTransaction.execute(status -> emailFilter.rebuild(count, userRepository::streamAllEmails));
+        if (Boolean.TRUE.equals(rebuilt)) {
+            log.info("Email filter rebuilt in {} ms", (System.nanoTime() - start) / 1_000_000);
+        }
+        return Map.of("rebuilt", Boolean.TRUE.equals(rebuilt), "status", status());
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return Map.of(
+                "ready", emailFilter.isReady(),
+                "staleEntries", emailFilter.getStaleEntries(),
+                "falsePositiveRate", emailFilter.getCurrentFalsePositiveRate());
+    }
+}
@@ -0,0 +1,139 @@
+package com.ashok.auth_api.service.implementation;
+
+import com.ashok.auth_api.config.ImportProperties;
+import com.ashok.auth_api.exceptions.ImportInProgressException;
+import com.ashok.auth_api.model.ImportCheckpoint;
+import com.ashok.auth_api.repository.ImportCheckpointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Resume points for bulk imports. Each chunk of users is inserted in the same transaction
+ * that moves its file's checkpoint forward, so after a crash the checkpoint says exactly
+ * which rows are in the database and a re-upload of the file can skip them without
+ * parsing, validating or querying them again. A file whose import completed starts from
+ * the first row again. Checkpoints not touched for {@code app.import.checkpoint-retention}
+ * are dropped, after which the file imports from the start.
+ * <p>
+ * An import claims its checkpoint for {@code app.import.claim-timeout}, renewed with every
+ * chunk, and releases it when it ends; another upload of the same file is rejected while
+ * the claim holds.
+ */
+@Component
+public class ImportCheckpoints {
+
+    private final ImportCheckpointRepository repository;
+    private final TransactionOperations transactions;
+    private final Duration retention;
+    private final Duration claimTimeout;
+
+    @Autowired
+    public ImportCheckpoints(ImportCheckpointRepository repository, PlatformTransactionManager transactionManager,
+                             ImportProperties properties) {
+        this(repository, new TransactionTemplate(transactionManager), properties.getCheckpointRetention(),
+                properties.getClaimTimeout());
+    }
+
+    public ImportCheckpoints(ImportCheckpointRepository repository, TransactionOperations transactions,
+                             Duration retention, Duration claimTimeout) {
+        this.repository = repository;
+        this.transactions = transactions;
+        this.retention = retention;
+        this.claimTimeout = claimTimeout;
+    }
+
+    /** SHA-256 of everything left in the stream, as hex; the stream is read to the end. */
+    public static String fingerprint(InputStream inputStream) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        try (DigestInputStream in = new DigestInputStream(inputStream, digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Claims the checkpoint of an unfinished earlier import of this file, or a fresh one at
+     * row 0 if there is none or that import completed. The caller must {@link #release} it.
+     *
+     * @throws ImportInProgressException if another import of the file holds the claim
+     */
+    public ImportCheckpoint start(String fileHash, String fileName) {
+        transactions.executeWithoutResult(status -> repository.deleteUpdatedBefore(Instant.now().minus(retention)));
+        try {
+            return transactions.execute(status -> {
+                Instant now = Instant.now();
+                ImportCheckpoint checkpoint = repository.findForUpdate(fileHash)
+                        .orElseGet(() -> new ImportCheckpoint(fileHash, fileName, 0, false, now, null));
+                if (checkpoint.getClaimedUntil() != null && checkpoint.getClaimedUntil().isAfter(now)) {
+                    throw new ImportInProgressException("An import of this file is already in progress");
+                }
+                if (checkpoint.isCompleted()) {
+                    checkpoint.setRowsCommitted(0);
+                    checkpoint.setCompleted(false);
+                }
+                checkpoint.setFileName(fileName);
+                checkpoint.setUpdatedAt(now);
+                checkpoint.setClaimedUntil(now.plus(claimTimeout));
+                repository.save(checkpoint);
+                return checkpoint;
+            });
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            // a concurrent first upload of the same file inserted the row first, or deadlocked
+            // with this one on the gap lock MySQL takes when no row was found
+            throw new ImportInProgressException("An import of this file is already in progress");
+        }
+    }
+
+    /**
+     * Runs {@code writeChunk} and moves the checkpoint to {@code rowsCommitted} in one
+     * transaction: either both are committed or neither is.
+     */
+    public void commitChunk(ImportCheckpoint checkpoint, long rowsCommitted, Runnable writeChunk) {
+        transactions.executeWithoutResult(status -> {
+            writeChunk.run();
+            save(checkpoint, rowsCommitted, false);
+        });
+    }
+
+    /** Records that every row of the file has been processed, and releases the claim. */
+    public void complete(ImportCheckpoint checkpoint, long rowsCommitted) {
+        transactions.executeWithoutResult(status -> save(checkpoint, rowsCommitted, true));
+    }
+
+    /**
+     * Lets another upload of the file start; the committed rows are left as they are. Called
+     * when an import ends without completing.
+     */
+    public void release(ImportCheckpoint checkpoint) {
+        transactions.executeWithoutResult(status -> repository.releaseClaim(checkpoint.getFileHash()));
+    }
+
+    private void save(ImportCheckpoint checkpoint, long rowsCommitted, boolean completed) {
+        Instant now = Instant.now();
+        checkpoint.setRowsCommitted(rowsCommitted);
+        checkpoint.setCompleted(completed);
+        checkpoint.setUpdatedAt(now);
+        checkpoint.setClaimedUntil(completed ? null : now.plus(claimTimeout));
+        repository.save(checkpoint);
+    }
+}
@@ -0,0 +1,111 @@
+package com.ashok.auth_api.service.implementation;
+
+import com.ashok.auth_api.dto.ImportJobStatusDTO;
+import com.ashok.auth_api.service.interfaces.ImportProgressListener;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live state of one background import. The import threads update the counters through
+ * the {@link ImportProgressListener} callbacks while request threads read snapshots.
+ */
+class ImportJob implements ImportProgressListener {
+
+    enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final String fileName;
+    private final long totalBytes;
+
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsInserted = new AtomicLong();
+    private final AtomicLong rowsSkipped = new AtomicLong();
+    private volatile double shareRead;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long startNanos;
+    private volatile long finishNanos;
+    private volatile Instant finishedAt;
+    private volatile String message;
+
+    ImportJob(String id, String fileName, long totalBytes) {
+        this.id = id;
+        this.fileName = fileName;
+        this.totalBytes = totalBytes;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+        status = Status.RUNNING;
+    }
+
+    void finish(boolean succeeded, String message) {
+        this.finishNanos = System.nanoTime();
+        this.message = message;
+        this.finishedAt = Instant.now();
+        this.status = succeeded ? Status.COMPLETED : Status.FAILED;
+    }
+
+    @Override
+    public void rowParsed() {
+        rowsParsed.incrementAndGet();
+    }
+
+    @Override
+    public void rowsSkipped(int count) {
+        rowsSkipped.addAndGet(count);
+    }
+
+    @Override
+    public void rowsInserted(int count) {
+        rowsInserted.addAndGet(count);
+    }
+
+    @Override
+    public void bytesRead(long totalBytes) {
+        bytesRead(totalBytes, this.totalBytes);
+    }
+
+    @Override
+    public void bytesRead(long bytesRead, long totalBytes) {
+        if (totalBytes > 0) {
+            shareRead = Math.min((double) bytesRead / totalBytes, 1);
+        }
+    }
+
+    ImportJobStatusDTO toStatus() {
+        Status current = status;
+        long parsed = rowsParsed.get();
+        long elapsedNanos = switch (current) {
+            case QUEUED -> 0;
+            case RUNNING -> System.nanoTime() - startNanos;
+            case COMPLETED, FAILED -> finishNanos - startNanos;
+        };
+        double rowsPerSecond = elapsedNanos > 0 ? parsed * 1_000_000_000d / elapsedNanos : 0;
+
+        return new ImportJobStatusDTO(id, fileName, current.name(), parsed, rowsInserted.get(),
+                rowsSkipped.get(), rowsPerSecond, etaSeconds(current, elapsedNanos), message);
+    }
+
+    /** Extrapolated from the share of the input consumed so far; unknown until some bytes are read. */
+    private Long etaSeconds(Status current, long elapsedNanos) {
+        if (current == Status.COMPLETED || current == Status.FAILED) {
+            return 0L;
+        }
+        double read = shareRead;
+        if (current != Status.RUNNING || read <= 0) {
+            return null;
+        }
+        double remainingNanos = elapsedNanos * (1 - read) / read;
+        return Math.round(remainingNanos / 1_000_000_000d);
+    }
+}
@@ -0,0 +1,216 @@
+package com.ashok.auth_api.service.implementation;
+
+import com.ashok.auth_api.config.ImportProperties;
+import com.ashok.auth_api.dto.ImportJobStatusDTO;
+import com.ashok.auth_api.service.interfaces.ImportJobService;
+import com.ashok.auth_api.service.interfaces.UserService;
+import com.ashok.auth_api.utils.ApiResponse;
+import com.ashok.auth_api.utils.CompressedUploads;
+import com.ashok.auth_api.utils.HttpStatusCodes;
+import com.ashok.auth_api.utils.ResponseHandler;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.zip.ZipException;
+
+/**
+ * Runs CSV/Excel imports in the background, plain or as .gz/.zip. Uploads are spooled to
+ * local disk so the request can return straight away. Each job gets a thread of its own, but
+ * only {@code max-concurrent} of them import at once and at most {@code queue-capacity} more
+ * wait for a turn; further uploads are rejected instead of piling up.
+ */
+@Slf4j
+@Service
+public class ImportJobServiceImpl implements ImportJobService {
+
+    private enum ImportFormat { CSV, EXCEL }
+
+    private final UserService userService;
+    private final ResponseHandler responseHandler;
+    private final ImportProperties.Jobs properties;
+    private final long maxDecompressedBytes;
+    private final ExecutorService executor;
+    // jobs accepted and not yet finished, running or waiting
+    private final Semaphore admitted;
+    // jobs importing right now; fair, so jobs waiting for a turn get it in the order they asked
+    private final Semaphore running;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * With {@code spring.threads.virtual.enabled} the jobs run on virtual threads, otherwise
+     * on platform threads; either way the semaphores, not the threads, cap how many import
+     * at once, since each one keeps the import hashing executor busy.
+     */
+    public ImportJobServiceImpl(UserService userService, ImportProperties importProperties,
+                                ResponseHandler responseHandler, Environment environment) {
+        this.userService = userService;
+        this.responseHandler = responseHandler;
+        this.properties = importProperties.getJobs();
+        this.maxDecompressedBytes = importProperties.getMaxDecompressedSize().toBytes();
+        this.executor = Threading.VIRTUAL.isActive(environment)
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("import-job-", 1).factory())
+                : Executors.newThreadPerTaskExecutor(new CustomizableThreadFactory("import-job-"));
+        this.admitted = new Semaphore(properties.getMaxConcurrent() + properties.getQueueCapacity());
+        this.running = new Semaphore(properties.getMaxConcurrent(), true);
+    }
+
+    @Override
+    public ApiResponse<ImportJobStatusDTO> submitImport(MultipartFile file) {
+        purgeExpiredJobs();
+        if (!admitted.tryAcquire()) {
+            return responseHandler.error("Too many imports in progress, try again later", HttpStatusCodes.SERVICE_UNAVAILABLE);
+        }
+        boolean handedOver = false;
+        try {
+            ApiResponse<ImportJobStatusDTO> response = spoolAndStart(file);
+            handedOver = response.getStatus() == HttpStatusCodes.ACCEPTED;
+            return response;
+        } finally {
+            if (!handedOver) {
+                admitted.release();
+            }
+        }
+    }
+
+    /** Spools the upload and starts its job, which then owns the admission permit. */
+    private ApiResponse<ImportJobStatusDTO> spoolAndStart(MultipartFile file) {
+        ImportFormat format;
+        Path spooled = null;
+        try (CompressedUploads.Entry upload = CompressedUploads.open(file.getInputStream(), file.getOriginalFilename(),
+                maxDecompressedBytes, ".csv", ".xlsx")) {
+            format = detectFormat(upload.name());
+            if (format == null) {
+                return responseHandler.error("Only .csv and .xlsx files, optionally as .gz or .zip, can be imported",
+                        HttpStatusCodes.BAD_REQUEST);
+            }
+            Files.createDirectories(properties.getSpoolDir());
+            if (format == ImportFormat.EXCEL) {
+                // POI needs random access, so the workbook is unwrapped while spooling
+                spooled = Files.createTempFile(properties.getSpoolDir(), "import-", ".xlsx");
+                Files.copy(upload.content(), spooled, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                // CSV stays compressed on disk and is decompressed again while it is parsed
+                spooled = Files.createTempFile(properties.getSpoolDir(), "import-",
+                        ".csv" + CompressedUploads.compressionSuffix(file.getOriginalFilename()));
+                file.transferTo(spooled);
+            }
+        } catch (CompressedUploads.DecompressedSizeExceededException e) {
+            deleteQuietly(spooled);
+            return responseHandler.error(e.getMessage(), HttpStatusCodes.PAYLOAD_TOO_LARGE);
+        } catch (ZipException e) {
+            deleteQuietly(spooled);
+            return responseHandler.error(e.getMessage(), HttpStatusCodes.BAD_REQUEST);
+        } catch (IOException e) {
+            deleteQuietly(spooled);
+            return responseHandler.error("Failed to store uploaded file", HttpStatusCodes.INTERNAL_SERVER_ERROR);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename(), file.getSize());
+        jobs.put(job.getId(), job);
+        try {
+            Path spooledFile = spooled;
+            executor.execute(() -> runJob(job, spooledFile, format));
+        } catch (RejectedExecutionException e) {
+            // only after shutdown
+            jobs.remove(job.getId());
+            deleteQuietly(spooled);
+            return responseHandler.error("Import service is shutting down", HttpStatusCodes.SERVICE_UNAVAILABLE);
+        }
+        return responseHandler.success(job.toStatus(), "Import accepted", HttpStatusCodes.ACCEPTED);
+    }
+
+    @Override
+    public ApiResponse<ImportJobStatusDTO> getImportJob(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            return responseHandler.error("Import job not found", HttpStatusCodes.NOT_FOUND);
+        }
+        return responseHandler.success(job.toStatus(), "Import job fetched successfully", HttpStatusCodes.OK);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void runJob(ImportJob job, Path file, ImportFormat format) {
+        try {
+            running.acquire();
+        } catch (InterruptedException e) {
+            // shut down while waiting for a turn
+            Thread.currentThread().interrupt();
+            job.finish(false, "Import cancelled: the server is shutting down");
+            deleteQuietly(file);
+            admitted.release();
+            return;
+        }
+        job.start();
+        boolean succeeded;
+        String message;
+        try {
+            ApiResponse<String> result = format == ImportFormat.EXCEL
+                    ? userService.registerUsersFromExcel(file, job)
+                    : userService.registerUsersFromCSV(file, job);
+            succeeded = result.getStatus() == HttpStatusCodes.OK;
+            message = result.getMessage();
+        } catch (RuntimeException e) {
+            log.warn("Import job {} failed", job.getId(), e);
+            succeeded = false;
+            message = "Import failed: " + e.getMessage();
+        } finally {
+            deleteQuietly(file);
+            running.release();
+            admitted.release();
+        }
+        // after the permits are back, so a client that sees the job finished can submit again
+        job.finish(succeeded, message);
+    }
+
+    private void purgeExpiredJobs() {
+        Instant cutoff = Instant.now().minus(properties.getRetention());
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static ImportFormat detectFormat(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return ImportFormat.CSV;
+        }
+        if (name.endsWith(".xlsx")) {
+            return ImportFormat.EXCEL;
+        }
+        return null;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled import file {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.ashok.auth_api.service.implementation;
+
+import com.ashok.auth_api.config.PasswordHashingProperties;
+import com.ashok.auth_api.exceptions.ServiceBusyException;
+import com.ashok.auth_api.utils.RequestTimings;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead in front of BCrypt on the request path (login, signup, edit, patch). Hashes run
+ * on a pool of {@code maxConcurrent} "password-hash-" threads, at most {@code maxWaiting}
+ * more queue for one and none waits longer than {@code maxWait}; everyone else gets a
+ * {@link ServiceBusyException} (503 with {@code Retry-After}) immediately, so a login burst
+ * cannot take every core away from the cheap endpoints.
+ * <p>
+ * The pool is the only limit: only the hash itself runs on it, never the repository calls
+ * around it. {@link #submit} hands the hash off and returns, so an async handler (login)
+ * gives its request thread back while BCrypt runs; {@link #execute} waits for it.
+ */
+@Component
+public class PasswordHashingBulkhead implements MeterBinder {
+
+    private final ThreadPoolExecutor executor;
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final long retryAfterSeconds;
+
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedTimeout = new LongAdder();
+    private volatile Timer waitTimer;
+
+    public PasswordHashingBulkhead(PasswordHashingProperties properties) {
+        this.maxConcurrent = Math.max(properties.getMaxConcurrent(), 1);
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.retryAfterSeconds = Math.max(properties.getRetryAfter().toSeconds(), 1);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        BlockingQueue<Runnable> queue = properties.getMaxWaiting() > 0
+                ? new ArrayBlockingQueue<>(properties.getMaxWaiting())
+                : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS, queue,
+                threadFactory, (task, pool) -> {
+                    rejectedQueueFull.increment();
+                    throw busy();
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs {@code hashingWork} on the hashing pool. Throws {@link ServiceBusyException} when
+     * the queue is full; a hash that waited past {@code maxWait} completes with one instead.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> hashingWork) {
+        HashingTask<T> task = new HashingTask<>(hashingWork);
+        executor.execute(RequestTimings.propagate(task));
+        return task.result;
+    }
+
+    /** Like {@link #submit}, waiting for the result on the calling thread. */
+    public <T> T execute(Supplier<T> hashingWork) {
+        HashingTask<T> task = new HashingTask<>(hashingWork);
+        Runnable queued = RequestTimings.propagate(task);
+        executor.execute(queued);
+        try {
+            if (!task.started.await(maxWaitNanos, TimeUnit.NANOSECONDS) && executor.remove(queued)) {
+                rejectedTimeout.increment();
+                throw busy();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.remove(queued);
+            throw busy();
+        }
+        try {
+            return task.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private ServiceBusyException busy() {
+        return new ServiceBusyException("Server is busy, try again later", retryAfterSeconds);
+    }
+
+    private void recordWait(long nanos) {
+        Timer timer = waitTimer;
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int getWaiting() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("password.hashing.queue.depth", this, PasswordHashingBulkhead::getWaiting)
+                .description("Requests waiting for a hashing thread")
+                .register(registry);
+        Gauge.builder("password.hashing.permits.available", executor, pool -> maxConcurrent - pool.getActiveCount())
+                .description("Idle hashing threads")
+                .register(registry);
+        FunctionCounter.builder("password.hashing.rejected", rejectedQueueFull, LongAdder::sum)
+                .tag("reason", "queue_full")
+                .register(registry);
+        FunctionCounter.builder("password.hashing.rejected", rejectedTimeout, LongAdder::sum)
+                .tag("reason", "timeout")
+                .register(registry);
+        waitTimer = Timer.builder("password.hashing.wait")
+                .description("Time spent waiting for a hashing thread")
+                .register(registry);
+    }
+
+    private final class HashingTask<T> implements Runnable {
+
+        private final Supplier<T> work;
+        private final long submittedNanos = System.nanoTime();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private HashingTask(Supplier<T> work) {
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            started.countDown();
+            long hashStart = System.nanoTime();
+            RequestTimings.record(RequestTimings.Phase.HASH_WAIT, submittedNanos);
+            if (hashStart - submittedNanos > maxWaitNanos) {
+                rejectedTimeout.increment();
+                result.completeExceptionally(busy());
+                return;
+            }
+            recordWait(hashStart - submittedNanos);
+            // recorded before completing: the response may be written as soon as the result is set
+            try {
+                T value = work.get();
+                RequestTimings.record(RequestTimings.Phase.HASH, hashStart);
+                result.complete(value);
+            } catch (Throwable e) {
+                RequestTimings.record(RequestTimings.Phase.HASH, hashStart);
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.ashok.auth_api.service.implementation;
+
+import com.ashok.auth_api.config.UserLookupProperties;
+import com.ashok.auth_api.exceptions.ServiceBusyException;
+import com.ashok.auth_api.model.User;
+import com.ashok.auth_api.utils.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of users, keyed by id and by email.
+ * <p>
+ * {@code usersById} holds detached copies of the entity; {@code usersByEmail} only maps the
+ * lower-cased email to an id, so every user is stored once and a stale email entry is caught
+ * by comparing it against the cached user. Size, TTL and hit/miss/eviction statistics come
+ * from the configured {@link CacheManager} (Caffeine, exposed through actuator metrics).
+ * <p>
+ * Misses are not cached, so new users never need an invalidation; callers must
+ * {@link #evict} a user after they change or delete it. A load that read the row before the
+ * change is still running at that point; every eviction is stamped with a sequence number,
+ * and a load only keeps what it read if its user has not been evicted since the load began.
+ * <p>
+ * Cache misses go through a {@link SingleFlight} per key type: while one lookup of a popular
+ * user is querying the database, identical lookups wait for its result (at most
+ * {@code app.users.lookup.single-flight-max-wait}, then 503) instead of running the same
+ * query again. Misses for absent users are coalesced too.
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+    public static final String USERS_BY_ID = "usersById";
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+
+    private static final int EVICTION_STRIPES = 1024;
+
+    private final Cache usersById;
+    private final Cache usersByEmail;
+    private final SingleFlight<Long, Optional<User>> idLookups;
+    private final SingleFlight<String, Optional<User>> emailLookups;
+    private final long retryAfterSeconds;
+
+    private final AtomicLong evictions = new AtomicLong();
+    // sequence number of the latest eviction per stripe of user ids
+    private final AtomicLongArray lastEviction = new AtomicLongArray(EVICTION_STRIPES);
+
+    @Autowired
+    public UserCache(CacheManager cacheManager, UserLookupProperties properties) {
+        this(cacheManager, properties.getSingleFlightMaxWait());
+    }
+
+    public UserCache(CacheManager cacheManager, Duration singleFlightMaxWait) {
+        this.usersById = requireCache(cacheManager, USERS_BY_ID);
+        this.usersByEmail = requireCache(cacheManager, USERS_BY_EMAIL);
+        this.idLookups = new SingleFlight<>(singleFlightMaxWait);
+        this.emailLookups = new SingleFlight<>(singleFlightMaxWait);
+        this.retryAfterSeconds = Math.max((singleFlightMaxWait.toMillis() + 999) / 1000, 1);
+    }
+
+    public Optional<User> findById(Long id, Function<Long, Optional<User>> loader) {
+        User cached = usersById.get(id, User.class);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+        return load(idLookups, id, () -> loader.apply(id));
+    }
+
+    public Optional<User> findByEmail(String email, Function<String, Optional<User>> loader) {
+        Long id = usersByEmail.get(emailKey(email), Long.class);
+        if (id != null) {
+            User cached = usersById.get(id, User.class);
+            if (cached != null && cached.getEmail().equalsIgnoreCase(email)) {
+                return Optional.of(copyOf(cached));
+            }
+        }
+        return load(emailLookups, emailKey(email), () -> loader.apply(email));
+    }
+
+    /**
+     * Caches a user read by a load that started when {@link #evictions} stood at
+     * {@code loadStart}, unless the user was evicted since: the row may predate a write.
+     */
+    private void putLoaded(User user, long loadStart) {
+        if (user.getId() == null || evictedSince(user.getId(), loadStart)) {
+            return;
+        }
+        usersById.put(user.getId(), copyOf(user));
+        usersByEmail.put(emailKey(user.getEmail()), user.getId());
+        // an eviction between the check and the put has already run its cache evict; undo the put
+        if (evictedSince(user.getId(), loadStart)) {
+            usersById.evict(user.getId());
+        }
+    }
+
+    private boolean evictedSince(Long id, long loadStart) {
+        return lastEviction.get(stripe(id)) > loadStart;
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id * 0x9E3779B97F4A7C15L) & (EVICTION_STRIPES - 1);
+    }
+
+    /**
+     * Email of the cached copy of a user, or {@code null} if the user is not cached. Never
+     * loads anything; for callers that change a user without reading it first.
+     */
+    public String peekEmail(Long id) {
+        User cached = usersById.get(id, User.class);
+        return cached == null ? null : cached.getEmail();
+    }
+
+    /**
+     * Drops both entries of a user; pass the email the user had before the change, or
+     * {@code null} if it is not known. Evicting the id alone is enough for correctness, as
+     * a left-over email entry no longer matches any cached user and is ignored.
+     */
+    public void evict(Long id, String email) {
+        // stamped before the entries go, so a load finishing in between sees it and skips its put
+        long sequence = evictions.incrementAndGet();
+        lastEviction.accumulateAndGet(stripe(id), sequence, Math::max);
+        usersById.evict(id);
+        // lookups after this must not share a query that may have read the old row
+        idLookups.forget(id);
+        if (email != null) {
+            usersByEmail.evict(emailKey(email));
+            emailLookups.forget(emailKey(email));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "id", idLookups);
+        bind(registry, "email", emailLookups);
+    }
+
+    private static void bind(MeterRegistry registry, String lookup, SingleFlight<?, ?> flights) {
+        FunctionCounter.builder("user.lookup.queries", flights, SingleFlight::getExecuted)
+                .tag("lookup", lookup)
+                .description("Cache misses that queried the database")
+                .register(registry);
+        FunctionCounter.builder("user.lookup.collapsed", flights, SingleFlight::getShared)
+                .tag("lookup", lookup)
+                .description("Cache misses answered by an identical query already in flight")
+                .register(registry);
+        FunctionCounter.builder("user.lookup.wait.timeouts", flights, SingleFlight::getTimedOut)
+                .tag("lookup", lookup)
+                .description("Lookups rejected after waiting too long for a query in flight")
+                .register(registry);
+        Gauge.builder("user.lookup.inflight", flights, SingleFlight::getInFlight)
+                .tag("lookup", lookup)
+                .description("Database lookups currently in flight")
+                .register(registry);
+    }
+
+    /**
+     * Runs {@code loader} for a miss, or shares the result of the identical one in flight.
+     * Every caller gets its own copy of the user.
+     */
+    private <K> Optional<User> load(SingleFlight<K, Optional<User>> flights, K key, Supplier<Optional<User>> loader) {
+        Optional<User> loaded;
+        try {
+            loaded = flights.execute(key, () -> {
+                long loadStart = evictions.get();
+                Optional<User> user = loader.get();
+                user.ifPresent(loadedUser -> putLoaded(loadedUser, loadStart));
+                return user;
+            });
+        } catch (TimeoutException e) {
+            throw busy();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy();
+        }
+        return loaded.map(UserCache::copyOf);
+    }
+
+    private ServiceBusyException busy() {
+        return new ServiceBusyException("Server is busy, try again later", retryAfterSeconds);
+    }
+
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    // Entities are mutable and edit/patch change them in place, so the cache never hands
+    // out or keeps a reference to an instance someone else holds.
+    private static User copyOf(User user) {
+        return new User(user.getId(), user.getUsername(), user.getEmail(), user.getPassword());
+    }
+
+    private static Cache requireCache(CacheManager cacheManager, String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache '" + name + "' is not configured, check spring.cache.cache-names");
+        }
+        return cache;
+    }
+}
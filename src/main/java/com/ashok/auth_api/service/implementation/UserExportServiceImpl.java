@@ -0,0 +1,159 @@
+package com.ashok.auth_api.service.implementation;
+
+import com.ashok.auth_api.dto.ViewUserResponseDTO;
+import com.ashok.auth_api.exceptions.ExportTooLargeException;
+import com.ashok.auth_api.repository.UserProjection;
+import com.ashok.auth_api.repository.UserRepository;
+import com.ashok.auth_api.service.interfaces.UserExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams every user straight from the database cursor to the response. Only the current
+ * row and the writer's buffer are in memory at any time (for Excel, a rolling window of
+ * rows with the rest flushed to temp files), so exports run in a few MB of heap whatever
+ * the size of the table.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final String[] EXPORT_HEADER = {"id", "username", "email"};
+    private static final int EXCEL_ROW_WINDOW = 100;
+    /** Rows on one .xlsx sheet, less the header. */
+    private static final int EXCEL_MAX_DATA_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+    private static final int CSV_BUFFER_SIZE = 64 * 1024;
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamUsersAsNdjson(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ViewUserResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (Stream<UserProjection> users = userRepository.streamAllBy();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<UserProjection> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                UserProjection user = iterator.next();
+                writer.writeValue(generator, new ViewUserResponseDTO(user.getId(), user.getUsername(), user.getEmail()));
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsersAsExcel(OutputStream out) throws IOException {
+        // Checked up front so the client gets a 400 instead of a broken download. The import reads
+        // only the first sheet, so the rows are not split across several sheets either.
+        if (userRepository.count() > EXCEL_MAX_DATA_ROWS) {
+            throw new ExportTooLargeException(EXCEL_MAX_DATA_ROWS);
+        }
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (Stream<UserProjection> users = userRepository.streamAllBy()) {
+            Sheet sheet = workbook.createSheet("Users");
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < EXPORT_HEADER.length; i++) {
+                header.createCell(i).setCellValue(EXPORT_HEADER[i]);
+            }
+
+            int rowNum = 1;
+            Iterator<UserProjection> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                UserProjection user = iterator.next();
+                if (rowNum > EXCEL_MAX_DATA_ROWS) {
+                    // users added since the count; nothing has been written to the response yet
+                    throw new ExportTooLargeException(EXCEL_MAX_DATA_ROWS);
+                }
+                Row row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue(user.getId());
+                row.createCell(1).setCellValue(user.getUsername());
+                row.createCell(2).setCellValue(user.getEmail());
+            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsersAsCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), CSV_BUFFER_SIZE);
+        try (Stream<UserProjection> users = userRepository.streamAllBy()) {
+            writer.write(String.join(",", EXPORT_HEADER));
+            writer.write("\r\n");
+
+            Iterator<UserProjection> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                UserProjection user = iterator.next();
+                writer.write(String.valueOf(user.getId()));
+                writer.write(',');
+                writeCsvField(writer, user.getUsername());
+                writer.write(',');
+                writeCsvField(writer, user.getEmail());
+                writer.write("\r\n");
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Quotes the field per RFC 4180 when it contains a delimiter, quote or line break. A field
+     * a spreadsheet would read as a formula gets a leading {@code '} so it opens as text.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (startsLikeFormula(value)) {
+            value = "'" + value;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static boolean startsLikeFormula(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        char first = value.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+}
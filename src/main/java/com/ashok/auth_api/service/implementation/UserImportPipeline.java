@@ -0,0 +1,359 @@
+package com.ashok.auth_api.service.implementation;
+
+import com.ashok.auth_api.config.ImportProperties;
+import com.ashok.auth_api.model.ImportCheckpoint;
+import com.ashok.auth_api.model.User;
+import com.ashok.auth_api.repository.UserRepository;
+import com.ashok.auth_api.service.interfaces.ImportProgressListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Staged bulk import used by the CSV and Excel uploads.
+ * <ol>
+ *     <li>parse: the calling thread validates rows, drops duplicates within the file and groups
+ *     the rest into chunks;</li>
+ *     <li>dedup: emails the {@link EmailExistenceFilter} cannot rule out are checked against the
+ *     database with a single {@code IN} query per chunk;</li>
+ *     <li>hash: the application's import hashing executor, sized to the CPU count and shared
+ *     with other running imports, runs BCrypt for every row of a chunk in parallel;</li>
+ *     <li>write: a single writer thread persists each hashed chunk with one JDBC batch, in the
+ *     same transaction that advances the file's {@link ImportCheckpoint}. An email taken
+ *     since the dedup stage fails the batch with a duplicate key; the chunk is then checked
+ *     again, its taken emails are skipped and the rest is written.</li>
+ * </ol>
+ * The parser starts after the rows an earlier import of the same file already committed
+ * ({@link #getResumeOffset}); those rows are counted as resumed, not parsed.
+ * Chunks travel from the parser to the writer through a bounded queue in submission order,
+ * so the parser blocks once {@code queueCapacity} chunks are in flight and memory stays
+ * bounded no matter how fast the file can be read.
+ * <p>
+ * Not thread-safe: {@link #accept}, {@link #skip} and {@link #finish} must be called from
+ * the parsing thread only.
+ */
+class UserImportPipeline implements AutoCloseable {
+
+    private static final HashedChunk END_OF_INPUT = new HashedChunk(List.of(), -1);
+
+    private final UserRepository userRepository;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final EmailExistenceFilter emailFilter;
+    private final ImportCheckpoints checkpoints;
+    private final ImportCheckpoint checkpoint;
+    private final ImportProgressListener listener;
+    private final int chunkSize;
+    private final Executor hashExecutor;
+    private final ExecutorService writerExecutor;
+    private final BlockingQueue<HashedChunk> writeQueue;
+    private final Future<?> writer;
+    private final AtomicInteger successCount = new AtomicInteger();
+    private final AtomicInteger skippedByWriter = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+    private final long resumeOffset;
+
+    /** Lower-cased emails of rows accepted but not yet written or dropped; the writer removes them. */
+    private final Set<String> pendingEmails = ConcurrentHashMap.newKeySet();
+    private List<ImportRow> chunk;
+    private int skippedCount;
+    private long rowOffset;
+    private boolean finished;
+    private boolean completed;
+
+    UserImportPipeline(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder,
+                       EmailExistenceFilter emailFilter, ImportProperties properties, Executor hashExecutor,
+                       ImportCheckpoints checkpoints, ImportCheckpoint checkpoint,
+                       ImportProgressListener listener) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.emailFilter = emailFilter;
+        this.checkpoints = checkpoints;
+        this.checkpoint = checkpoint;
+        this.listener = listener;
+        this.resumeOffset = checkpoint.getRowsCommitted();
+        this.rowOffset = resumeOffset;
+        this.chunkSize = properties.getBatchSize();
+        this.chunk = new ArrayList<>(chunkSize);
+        this.hashExecutor = hashExecutor;
+        this.writerExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("user-import-writer-"));
+        this.writeQueue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+        this.writer = writerExecutor.submit(this::runWriter);
+    }
+
+    /**
+     * Data rows at the start of the file that an earlier import already committed; the
+     * parser must pass over them without calling {@link #accept} or {@link #skip}.
+     */
+    long getResumeOffset() {
+        return resumeOffset;
+    }
+
+    /** Parse stage: validates one row and queues it for hashing unless it is a duplicate. */
+    void accept(String username, String email, String password) {
+        listener.rowParsed();
+        rowOffset++;
+        if (username == null || username.isBlank() ||
+                email == null || email.isBlank() ||
+                password == null || password.isBlank()) {
+            skipRows(1);
+            return;
+        }
+
+        // An earlier row with this email may still be waiting to be written, where the dedup
+        // query cannot see it; once written, the query finds it like any other taken email.
+        // Only emails in flight are kept, so memory does not grow with the file.
+        if (!pendingEmails.add(email.toLowerCase(Locale.ROOT))) {
+            skipRows(1);
+            return;
+        }
+
+        chunk.add(new ImportRow(username, email, password));
+        if (chunk.size() >= chunkSize) {
+            dispatchChunk();
+        }
+    }
+
+    /** Counts a row the parser rejected before it reached {@link #accept}. */
+    void skip() {
+        listener.rowParsed();
+        rowOffset++;
+        skipRows(1);
+    }
+
+    /**
+     * Dispatches the last partial chunk, waits until the writer has persisted every queued
+     * chunk and marks the file as fully imported. Failures in the hash or write stage are
+     * rethrown here.
+     */
+    ImportResult finish() {
+        ImportResult result = flush();
+        checkpoints.complete(checkpoint, rowOffset);
+        completed = true;
+        return result;
+    }
+
+    /**
+     * Like {@link #finish} but for input that could not be read to the end: rows parsed so
+     * far are written, and the checkpoint stays where the last chunk left it.
+     */
+    ImportResult flush() {
+        if (!finished) {
+            finished = true;
+            dispatchChunk();
+            enqueue(END_OF_INPUT);
+        }
+        awaitWriter();
+        return new ImportResult(successCount.get(), skippedCount + skippedByWriter.get(), resumeOffset,
+                System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Stops the writer, drops the hashing of chunks it has not taken yet and, unless the
+     * import completed, releases the file's checkpoint.
+     */
+    @Override
+    public void close() {
+        writerExecutor.shutdownNow();
+        // a cancelled row is never hashed; the executor is shared, so it is not shut down
+        for (HashedChunk pending = writeQueue.poll(); pending != null; pending = writeQueue.poll()) {
+            pending.users().forEach(user -> user.cancel(false));
+        }
+        if (!completed) {
+            checkpoints.release(checkpoint);
+        }
+    }
+
+    private void dispatchChunk() {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<ImportRow> newRows = removeExistingUsers(chunk);
+        chunk = new ArrayList<>(chunkSize);
+        if (newRows.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<User>> hashed = new ArrayList<>(newRows.size());
+        for (ImportRow row : newRows) {
+            hashed.add(CompletableFuture.supplyAsync(() -> toUser(row), hashExecutor));
+        }
+        enqueue(new HashedChunk(hashed, rowOffset));
+    }
+
+    /** Dedup stage: at most one query per chunk instead of one findByEmail per row. */
+    private List<ImportRow> removeExistingUsers(List<ImportRow> rows) {
+        List<String> emails = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            if (emailFilter.mightExist(row.email())) {
+                emails.add(row.email());
+            }
+        }
+        if (emails.isEmpty()) {
+            return rows;
+        }
+        Set<String> existing = findExisting(emails);
+        emailFilter.recordFalsePositives(emails.size() - existing.size());
+        if (existing.isEmpty()) {
+            return rows;
+        }
+
+        List<ImportRow> newRows = new ArrayList<>(rows.size() - existing.size());
+        for (ImportRow row : rows) {
+            String key = row.email().toLowerCase(Locale.ROOT);
+            if (existing.contains(key)) {
+                pendingEmails.remove(key);
+            } else {
+                newRows.add(row);
+            }
+        }
+        skipRows(rows.size() - newRows.size());
+        return newRows;
+    }
+
+    /** Lower-cased, to match the case-insensitive email collation. */
+    private Set<String> findExisting(List<String> emails) {
+        Set<String> existing = new HashSet<>();
+        for (String email : userRepository.findExistingEmails(emails)) {
+            existing.add(email.toLowerCase(Locale.ROOT));
+        }
+        return existing;
+    }
+
+    private void skipRows(int count) {
+        skippedCount += count;
+        listener.rowsSkipped(count);
+    }
+
+    private User toUser(ImportRow row) {
+        User user = new User();
+        user.setUsername(row.username());
+        user.setEmail(row.email());
+        user.setPassword(passwordEncoder.encode(row.password()));
+        return user;
+    }
+
+    /** Blocks while the queue is full, but gives up as soon as the writer has died. */
+    private void enqueue(HashedChunk hashedChunk) {
+        try {
+            while (!writeQueue.offer(hashedChunk, 100, TimeUnit.MILLISECONDS)) {
+                if (writer.isDone()) {
+                    awaitWriter();
+                    throw new IllegalStateException("Import writer stopped unexpectedly");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing import rows", e);
+        }
+    }
+
+    private void runWriter() {
+        try {
+            while (true) {
+                HashedChunk next = writeQueue.take();
+                if (next == END_OF_INPUT) {
+                    return;
+                }
+                List<User> hashed = new ArrayList<>(next.users().size());
+                for (CompletableFuture<User> user : next.users()) {
+                    hashed.add(user.join());
+                }
+                List<User> users = writeChunk(hashed, next.rowOffset());
+                List<String> emails = new ArrayList<>(users.size());
+                for (User user : users) {
+                    emails.add(user.getEmail());
+                }
+                emailFilter.addAll(emails);
+                // only now: a later duplicate must find these emails in the filter and table
+                for (User user : hashed) {
+                    pendingEmails.remove(user.getEmail().toLowerCase(Locale.ROOT));
+                }
+                successCount.addAndGet(users.size());
+                listener.rowsInserted(users.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes {@code users} and moves the checkpoint to {@code rowOffset}. Emails taken since
+     * the dedup stage, by a signup or another import, are skipped and the write is retried;
+     * every retry drops at least one row, so this ends. Returns the users actually inserted.
+     */
+    private List<User> writeChunk(List<User> users, long rowOffset) {
+        while (true) {
+            List<User> batch = users;
+            try {
+                // every row up to the end of this chunk is now either inserted or skipped
+                checkpoints.commitChunk(checkpoint, rowOffset, () -> userRepository.batchInsert(batch));
+                return batch;
+            } catch (DuplicateKeyException e) {
+                List<String> emails = new ArrayList<>(batch.size());
+                for (User user : batch) {
+                    emails.add(user.getEmail());
+                }
+                Set<String> existing = findExisting(emails);
+                if (existing.isEmpty()) {
+                    throw e;
+                }
+                users = new ArrayList<>(batch.size() - existing.size());
+                for (User user : batch) {
+                    if (!existing.contains(user.getEmail().toLowerCase(Locale.ROOT))) {
+                        users.add(user);
+                    }
+                }
+                int skipped = batch.size() - users.size();
+                skippedByWriter.addAndGet(skipped);
+                listener.rowsSkipped(skipped);
+            }
+        }
+    }
+
+    private void awaitWriter() {
+        try {
+            writer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the import writer", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Import writer failed", cause);
+        }
+    }
+
+    private record ImportRow(String username, String email, String password) {
+    }
+
+    /** Users of one chunk, each hashed on its own, and the row offset the chunk ends at. */
+    private record HashedChunk(List<CompletableFuture<User>> users, long rowOffset) {
+    }
+
+    record ImportResult(int successCount, int skippedCount, long resumedRows, long elapsedNanos) {
+    }
+}
@@ -1,33 +1,54 @@
 package com.ashok.auth_api.service.implementation;
 
+import com.ashok.auth_api.config.AsyncConfig;
+import com.ashok.auth_api.config.ImportProperties;
+import com.ashok.auth_api.config.UserLookupProperties;
 import com.ashok.auth_api.dto.*;
 import com.ashok.auth_api.exceptions.InvalidSignupDataException;
 import com.ashok.auth_api.exceptions.UserAlreadyExistsException;
 import com.ashok.auth_api.model.User;
 import com.ashok.auth_api.repository.UserRepository;
+import com.ashok.auth_api.security.JwtAuthenticationToken;
 import com.ashok.auth_api.security.JwtUtil;
+import com.ashok.auth_api.service.interfaces.ImportProgressListener;
 import com.ashok.auth_api.service.interfaces.UserService;
 import com.ashok.auth_api.utils.ApiResponse;
+import com.ashok.auth_api.utils.CompressedUploads;
+import com.ashok.auth_api.utils.CsvStreamReader;
+import com.ashok.auth_api.utils.DuplicateKeys;
+import com.ashok.auth_api.utils.ExcelStreamReader;
+import com.ashok.auth_api.utils.ProgressInputStream;
 import com.ashok.auth_api.utils.HttpStatusCodes;
 import com.ashok.auth_api.utils.ResponseHandler;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.springframework.beans.factory.annotation.Autowired;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.ZipException;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
@@ -36,6 +57,17 @@ public class UserServiceImpl implements UserService {
     private final JwtUtil jwtUtil;
     private final BCryptPasswordEncoder passwordEncoder;
     private final ResponseHandler responseHandler;
+    private final ImportProperties importProperties;
+    private final UserCache userCache;
+    private final EmailExistenceFilter emailFilter;
+    private final PasswordHashingBulkhead passwordHashing;
+    private final ImportCheckpoints importCheckpoints;
+    private final UserLookupProperties lookupProperties;
+    @Qualifier(AsyncConfig.IMPORT_HASHING_EXECUTOR)
+    private final Executor importHashingExecutor;
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
 
     @Override
     public ApiResponse<SignupResponseDTO> register(SignupRequestDTO dto) {
@@ -45,16 +77,20 @@ public class UserServiceImpl implements UserService {
 
             throw new InvalidSignupDataException("Username, email, and password are required.");
         }
-        Optional<User> existingUser = userRepository.findByEmail(dto.email());
-        if(existingUser.isPresent()){
-            throw new UserAlreadyExistsException("Email already registered");
-        }
         User user = new User();
         user.setUsername(dto.username());
         user.setEmail(dto.email());
-        user.setPassword(passwordEncoder.encode(dto.password()));
-
-        User savedUser = userRepository.save(user);
+        user.setPassword(passwordHashing.execute(() -> passwordEncoder.encode(dto.password())));
+
+        // No lookup first: the unique constraint on email rejects a taken address, concurrent
+        // signups included.
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw emailTakenOr(e);
+        }
+        emailFilter.add(savedUser.getEmail());
 
         SignupResponseDTO responseDTO = new SignupResponseDTO(savedUser.getId(),savedUser.getUsername(),savedUser.getEmail());
 
@@ -62,173 +98,233 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public ApiResponse<LoginResponseDTO> login(LoginRequestDTO dto) {
-        Optional<User> userOpt = userRepository.findByEmail(dto.email());
+    public CompletableFuture<ApiResponse<LoginResponseDTO>> login(LoginRequestDTO dto) {
+        // The lookup runs on the calling thread; only BCrypt is handed to the hashing pool.
+        Optional<User> userOpt = userCache.findByEmail(dto.email(), userRepository::findByEmail);
 
-        if (userOpt.isEmpty() || !passwordEncoder.matches(dto.password(), userOpt.get().getPassword())) {
-            return responseHandler.error("Invalid email or password", HttpStatusCodes.UNAUTHORIZED);
+        if (userOpt.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    responseHandler.error("Invalid email or password", HttpStatusCodes.UNAUTHORIZED));
         }
-        String token = jwtUtil.generateToken(userOpt.get().getEmail());
-
-        return responseHandler.success(
-                new LoginResponseDTO(token),
-                "Login successful",
-                HttpStatusCodes.OK
-        );
+        User user = userOpt.get();
+        return passwordHashing.submit(() -> passwordEncoder.matches(dto.password(), user.getPassword()))
+                .thenApply(matches -> {
+                    if (!matches) {
+                        return responseHandler.error("Invalid email or password", HttpStatusCodes.UNAUTHORIZED);
+                    }
+                    String token = jwtUtil.generateToken(user.getEmail());
+
+                    return responseHandler.success(
+                            new LoginResponseDTO(token),
+                            "Login successful",
+                            HttpStatusCodes.OK
+                    );
+                });
     }
     @Override
     public ApiResponse<String> registerUsersFromExcel(MultipartFile file) {
-        int successCount = 0;
-        int skippedCount = 0;
-
-        try (InputStream inputStream = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(inputStream)) {
-
-            Sheet sheet = workbook.getSheetAt(0);
-            boolean isHeader = true;
-
-            for (Row row : sheet) {
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
-                }
-
-                String username = row.getCell(0).getStringCellValue();
-                String email = row.getCell(1).getStringCellValue();
-                String password = row.getCell(2).getStringCellValue();
-
-                if (username == null || username.isBlank() ||
-                        email == null || email.isBlank() ||
-                        password == null || password.isBlank()) {
-                    skippedCount++;
-                    continue;
-                }
-
-                Optional<User> existingUser = userRepository.findByEmail(email);
-                if (existingUser.isPresent()) {
-                    skippedCount++;
-                    continue;
-                }
-
-                User user = new User();
-                user.setUsername(username);
-                user.setEmail(email);
-                user.setPassword(passwordEncoder.encode(password));
-                userRepository.save(user);
-                successCount++;
+        Path tempFile = null;
+        try {
+            // The upload is spooled to disk so POI can open the package without buffering it.
+            // A .gz or .zip wrapper is removed on the way; the .xlsx inside is itself compressed.
+            tempFile = Files.createTempFile("user-import-", ".xlsx");
+            try (CompressedUploads.Entry upload = openUpload(file.getInputStream(), file.getOriginalFilename(), ".xlsx")) {
+                Files.copy(upload.content(), tempFile, StandardCopyOption.REPLACE_EXISTING);
             }
-
+            return registerUsersFromExcel(tempFile, ImportProgressListener.NONE);
+        } catch (IOException e) {
+            return importError(e, "Failed to read Excel file");
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+    @Override
+    public ApiResponse<String> registerUsersFromExcel(Path file, ImportProgressListener listener) {
+        String fileHash;
+        try {
+            fileHash = ImportCheckpoints.fingerprint(Files.newInputStream(file));
         } catch (IOException e) {
             return responseHandler.error("Failed to read Excel file", HttpStatusCodes.INTERNAL_SERVER_ERROR);
         }
+        try (UserImportPipeline pipeline = newImportPipeline(fileHash, file.getFileName().toString(), listener)) {
+            // The sheet is read row by row instead of building an XSSFWorkbook in memory.
+            // Progress is the share of the sheet's XML parsed so far rather than of the uploaded file.
+            try {
+                long[] row = {-1};
+                ExcelStreamReader.readFirstSheet(file.toFile(), cells -> {
+                    // row -1 is the header; rows before the resume offset were committed earlier
+                    if (row[0]++ < pipeline.getResumeOffset()) {
+                        return;
+                    }
+                    pipeline.accept(cellAt(cells, 0), cellAt(cells, 1), cellAt(cells, 2));
+                }, listener::bytesRead);
+
+            } catch (IOException e) {
+                pipeline.flush();
+                return responseHandler.error("Failed to read Excel file", HttpStatusCodes.INTERNAL_SERVER_ERROR);
+            }
 
-        String message = String.format("Successfully registered: %d, Skipped: %d", successCount, skippedCount);
-        //return new ApiResponse<>(200, message, null);
-       return responseHandler.success(null,message,HttpStatusCodes.OK);
+            String message = importMessage(pipeline.finish(), "Excel");
+            //return new ApiResponse<>(200, message, null);
+           return responseHandler.success(null,message,HttpStatusCodes.OK);
+        }
     }
     @Override
     public ApiResponse<String> registerUsersFromCSV(MultipartFile file) {
-        int successCount = 0;
-        int skippedCount = 0;
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            String line;
-            boolean isHeader = true;
+        try {
+            String fileHash = ImportCheckpoints.fingerprint(file.getInputStream());
+            return importCsv(file.getInputStream(), file.getOriginalFilename(), fileHash, ImportProgressListener.NONE);
+        } catch (IOException e) {
+            return responseHandler.error("Failed to read CSV file", HttpStatusCodes.INTERNAL_SERVER_ERROR);
+        }
+    }
+    @Override
+    public ApiResponse<String> registerUsersFromCSV(Path file, ImportProgressListener listener) {
+        try {
+            String fileHash = ImportCheckpoints.fingerprint(Files.newInputStream(file));
+            return importCsv(Files.newInputStream(file), file.getFileName().toString(), fileHash, listener);
+        } catch (IOException e) {
+            return responseHandler.error("Failed to read CSV file", HttpStatusCodes.INTERNAL_SERVER_ERROR);
+        }
+    }
 
-            while ((line = reader.readLine()) != null) {
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
+    private ApiResponse<String> importCsv(InputStream inputStream, String fileName, String fileHash,
+                                          ImportProgressListener listener) {
+        try (UserImportPipeline pipeline = newImportPipeline(fileHash, fileName, listener)) {
+            // Progress counts the bytes as uploaded, so a compressed file still matches its upload size.
+            // Columns are found by header name; quoted fields may hold commas and line breaks.
+            try (CompressedUploads.Entry upload = openUpload(
+                         new ProgressInputStream(inputStream, listener::bytesRead), fileName, ".csv");
+                 CsvStreamReader reader = CsvStreamReader.open(upload.content(), "username", "email", "password")) {
+                for (long row = 0; row < pipeline.getResumeOffset() && reader.skip(); row++) {
+                    // committed by an earlier import of the same file
                 }
-
-                String[] fields = line.split(",");
-                if (fields.length < 3) {
-                    skippedCount++;
-                    continue;
+                while (reader.next()) {
+                    pipeline.accept(trim(reader.get(0)), trim(reader.get(1)), trim(reader.get(2)));
                 }
 
-                String username = fields[0].trim();
-                String email = fields[1].trim();
-                String password = fields[2].trim();
-
-                if (username.isBlank() || email.isBlank() || password.isBlank()) {
-                    skippedCount++;
-                    continue;
-                }
+            } catch (IOException e) {
+                pipeline.flush();
+                return importError(e, "Failed to read CSV file");
+            }
 
-                Optional<User> existingUser = userRepository.findByEmail(email);
-                if (existingUser.isPresent()) {
-                    skippedCount++;
-                    continue;
-                }
+            String message = importMessage(pipeline.finish(), "CSV");
+            return responseHandler.success(null, message, HttpStatusCodes.OK);
+        }
+    }
 
-                User user = new User();
-                user.setUsername(username);
-                user.setEmail(email);
-                user.setPassword(passwordEncoder.encode(password));
-                userRepository.save(user);
-                successCount++;
-            }
+    private CompressedUploads.Entry openUpload(InputStream inputStream, String fileName, String extension) throws IOException {
+        return CompressedUploads.open(inputStream, fileName, importProperties.getMaxDecompressedSize().toBytes(), extension);
+    }
 
-        } catch (IOException e) {
-            return responseHandler.error("Failed to read CSV file", HttpStatusCodes.INTERNAL_SERVER_ERROR);
+    /** Bad uploads are the client's fault; anything else is an I/O failure on our side. */
+    private ApiResponse<String> importError(IOException e, String failureMessage) {
+        if (e instanceof CompressedUploads.DecompressedSizeExceededException) {
+            return responseHandler.error(e.getMessage(), HttpStatusCodes.PAYLOAD_TOO_LARGE);
+        }
+        if (e instanceof CsvStreamReader.CsvFormatException || e instanceof ZipException) {
+            return responseHandler.error(e.getMessage(), HttpStatusCodes.BAD_REQUEST);
         }
+        return responseHandler.error(failureMessage, HttpStatusCodes.INTERNAL_SERVER_ERROR);
+    }
+
+    private UserImportPipeline newImportPipeline(String fileHash, String fileName, ImportProgressListener listener) {
+        return new UserImportPipeline(userRepository, passwordEncoder, emailFilter, importProperties,
+                importHashingExecutor, importCheckpoints, importCheckpoints.start(fileHash, fileName), listener);
+    }
 
-        String message = String.format("Successfully registered: %d, Skipped: %d", successCount, skippedCount);
-        return responseHandler.success(null, message, HttpStatusCodes.OK);
+    private String importMessage(UserImportPipeline.ImportResult result, String source) {
+        long elapsedNanos = Math.max(result.elapsedNanos(), 1);
+        double rowsPerSecond = (result.successCount() + result.skippedCount()) * 1_000_000_000d / elapsedNanos;
+        log.info("{} import finished: {} registered, {} skipped, {} resumed in {} ms ({} rows/s)",
+                source, result.successCount(), result.skippedCount(), result.resumedRows(),
+                elapsedNanos / 1_000_000, String.format("%.1f", rowsPerSecond));
+        String message = String.format("Successfully registered: %d, Skipped: %d", result.successCount(), result.skippedCount());
+        return result.resumedRows() > 0 ? message + ", Resumed after row: " + result.resumedRows() : message;
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static String cellAt(List<String> cells, int index) {
+        return index < cells.size() ? cells.get(index) : null;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // best effort, the file lives in the temp directory anyway
+        }
     }
+
     @Override
-    public ApiResponse<List<UserResponseDTO>> getDashboardData(String authHeader){
+    public ApiResponse<UserPageDTO> getDashboardData(String authHeader, Long after, Integer limit){
         if(authHeader != null && authHeader.startsWith("Bearer ")){
             String token = authHeader.substring(7);
-            if(jwtUtil.validateToken(token)){
-                List<User> userList = userRepository.findAll();
-                List<UserResponseDTO> dtoList = new ArrayList<>();
-                for(User user : userList){
-                    UserResponseDTO dto = new UserResponseDTO(
-                        user.getId(),user.getUsername(),user.getEmail(),user.getPassword()
-                    );
-                    dtoList.add(dto);
-                }
-                return responseHandler.success(dtoList,"Fetched all users",HttpStatusCodes.OK);
+            if(isVerifiedToken(token)){
+                int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+                List<UserResponseDTO> users = userRepository.findPageAfter(after == null ? 0L : after, Limit.of(pageSize));
+                Long nextCursor = users.size() == pageSize ? users.get(users.size() - 1).id() : null;
+                return responseHandler.success(new UserPageDTO(users, nextCursor),"Fetched users",HttpStatusCodes.OK);
             }
         }
         return responseHandler.error("Invalid or missing token",HttpStatusCodes.UNAUTHORIZED);
     }
 
+    private boolean isVerifiedToken(String token) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication && jwtAuthentication.getToken().equals(token)) {
+            // already verified by JwtAuthenticationFilter for this request
+            return true;
+        }
+        return jwtUtil.validateToken(token);
+    }
+
     @Override
     public ApiResponse<DeleteUserResponseDTO> deleteUser(Long id) {
-        Optional<User> optionalUser = userRepository.findById(id);
-        if (optionalUser.isPresent()) {
-            User user = optionalUser.get();
-            userRepository.deleteById(id);
-            DeleteUserResponseDTO dto = new DeleteUserResponseDTO(user.getId(), user.getUsername(), user.getEmail(), user.getPassword());
-            return responseHandler.success(dto, "User deleted successfully", HttpStatusCodes.OK);
-        }else{
+        // one DELETE; the affected-row count tells whether the user existed
+        String previousEmail = userCache.peekEmail(id);
+        if (userRepository.deleteUserById(id) == 0) {
             return responseHandler.error("User not found with ID: " + id, HttpStatusCodes.NOT_FOUND);
         }
+        // after the commit, for the same reason as in editUserById
+        userCache.evict(id, previousEmail);
+        emailFilter.markRemoved();
+        DeleteUserResponseDTO dto = new DeleteUserResponseDTO(id, null, null, null);
+        return responseHandler.success(dto, "User deleted successfully", HttpStatusCodes.OK);
     }
     @Override
     public ApiResponse<EditUserResponseDTO> editUserById(Long id, EditUserRequestDTO dto) {
-        Optional<User> optionalUser = userRepository.findById(id);
-        if (optionalUser.isEmpty()) {
+        // one UPDATE without reading the row first; the affected-row count drives the 404
+        String previousEmail = userCache.peekEmail(id);
+        String password = passwordHashing.execute(() -> passwordEncoder.encode(dto.password())); // encode new password
+        int updated;
+        try {
+            updated = userRepository.updateById(id, dto.username(), dto.email(), password);
+        } catch (DataIntegrityViolationException e) {
+            throw emailTakenOr(e);
+        }
+        if (updated == 0) {
             return responseHandler.error("User not found", HttpStatusCodes.NOT_FOUND);
         }
 
-        User user = optionalUser.get();
-        user.setUsername(dto.username());
-        user.setEmail(dto.email());
-        user.setPassword(passwordEncoder.encode(dto.password())); // encode new password
+        // After the commit: a read from now on sees the new row, and UserCache drops whatever a
+        // load that started before this eviction read, so the old row is not cached again.
+        userCache.evict(id, previousEmail);
+        recordEmailChange(previousEmail, dto.email());
 
-        User updatedUser = userRepository.save(user);
-
-        EditUserResponseDTO responseDTO = new EditUserResponseDTO(updatedUser.getId(), updatedUser.getUsername(), updatedUser.getEmail());
+        EditUserResponseDTO responseDTO = new EditUserResponseDTO(id, dto.username(), dto.email());
 
         return responseHandler.success(responseDTO, "User updated successfully", HttpStatusCodes.OK);
     }
     @Override
     public ApiResponse<ViewUserResponseDTO> getUserById(Long id) {
-        Optional<User> optionalUser = userRepository.findById(id);
+        Optional<User> optionalUser = userCache.findById(id, userRepository::findById);
         if (optionalUser.isEmpty()) {
             return responseHandler.error("User not found", HttpStatusCodes.NOT_FOUND);
         }
@@ -238,33 +334,87 @@ public class UserServiceImpl implements UserService {
         return responseHandler.success(dto, "User fetched successfully", HttpStatusCodes.OK);
     }
     @Override
-    public ApiResponse<EditUserResponseDTO> patchUserById(Long id, PatchUserRequestDTO dto) {
-        Optional<User> optionalUser = userRepository.findById(id);
-        if (optionalUser.isEmpty()) {
-            return responseHandler.error("User not found", HttpStatusCodes.NOT_FOUND);
+    public ApiResponse<List<UserLookupDTO>> getUsersByIds(List<Long> ids) {
+        // not contains(null): immutable lists throw on it
+        if (ids == null || ids.isEmpty() || ids.stream().anyMatch(Objects::isNull)) {
+            return responseHandler.error("At least one id is required, and none may be empty", HttpStatusCodes.BAD_REQUEST);
+        }
+        if (ids.size() > lookupProperties.getMaxIds()) {
+            return responseHandler.error("At most " + lookupProperties.getMaxIds() + " ids may be requested at once",
+                    HttpStatusCodes.BAD_REQUEST);
         }
 
-        User user = optionalUser.get();
-
-        if (dto.username() != null && !dto.username().isBlank()) {
-            user.setUsername(dto.username());
+        // one IN query for the distinct ids, then the rows are laid out in request order
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        Map<Long, ViewUserResponseDTO> usersById = new HashMap<>(distinctIds.size() * 2);
+        for (ViewUserResponseDTO user : userRepository.findViewsByIdIn(distinctIds)) {
+            usersById.put(user.id(), user);
+        }
+        List<UserLookupDTO> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ViewUserResponseDTO user = usersById.get(id);
+            results.add(new UserLookupDTO(id, user != null, user));
         }
+        return responseHandler.success(results, "Fetched " + usersById.size() + " of " + distinctIds.size() + " users",
+                HttpStatusCodes.OK);
+    }
 
-        if (dto.email() != null && !dto.email().isBlank()) {
-            user.setEmail(dto.email());
+    /** {@code previousEmail} may be {@code null} when it is not known; the change is then assumed. */
+    private void recordEmailChange(String previousEmail, String newEmail) {
+        if (newEmail != null && !newEmail.equalsIgnoreCase(previousEmail)) {
+            emailFilter.add(newEmail);
+            emailFilter.markRemoved();
         }
+    }
 
-        if (dto.password() != null && !dto.password().isBlank()) {
-            user.setPassword(passwordEncoder.encode(dto.password()));
+    @Override
+    public ApiResponse<EditUserResponseDTO> patchUserById(Long id, PatchUserRequestDTO dto) {
+        String username = blankToNull(dto.username());
+        String email = blankToNull(dto.email());
+        String password = blankToNull(dto.password()) == null
+                ? null : passwordHashing.execute(() -> passwordEncoder.encode(dto.password()));
+
+        // one UPDATE of just the supplied columns; the response echoes them, the rest are null
+        boolean found;
+        String previousEmail = userCache.peekEmail(id);
+        if (username == null && email == null && password == null) {
+            found = userRepository.existsById(id);
+        } else {
+            try {
+                found = userRepository.patchById(id, username, email, password) > 0;
+            } catch (DataIntegrityViolationException e) {
+                throw emailTakenOr(e);
+            }
+        }
+        if (!found) {
+            return responseHandler.error("User not found", HttpStatusCodes.NOT_FOUND);
         }
 
-        User updatedUser = userRepository.save(user);
-        EditUserResponseDTO responseDTO = new EditUserResponseDTO(
-                updatedUser.getId(), updatedUser.getUsername(), updatedUser.getEmail()
-        );
+        // after the commit, for the same reason as in editUserById
+        userCache.evict(id, previousEmail);
+        if (email != null) {
+            recordEmailChange(previousEmail, email);
+        }
+        EditUserResponseDTO responseDTO = new EditUserResponseDTO(id, username, email);
 
         return responseHandler.success(responseDTO, "User patched successfully", HttpStatusCodes.OK);
     }
 
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * Email is the only unique key a write to {@code users} can break, so a duplicate key there
+     * means the email is taken, whatever the key is called. Anything else, a missing column
+     * for instance, is returned as it is.
+     */
+    private static RuntimeException emailTakenOr(DataIntegrityViolationException e) {
+        if (DuplicateKeys.isDuplicateKey(e)) {
+            return new UserAlreadyExistsException("Email already registered");
+        }
+        return e;
+    }
+
 
 }
\ No newline at end of file
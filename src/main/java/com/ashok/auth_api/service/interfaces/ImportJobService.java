@@ -0,0 +1,10 @@
+package com.ashok.auth_api.service.interfaces;
+
+import com.ashok.auth_api.dto.ImportJobStatusDTO;
+import com.ashok.auth_api.utils.ApiResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ImportJobService {
+    ApiResponse<ImportJobStatusDTO> submitImport(MultipartFile file);
+    ApiResponse<ImportJobStatusDTO> getImportJob(String id);
+}
@@ -0,0 +1,31 @@
+package com.ashok.auth_api.service.interfaces;
+
+/**
+ * Receives progress callbacks while a bulk import runs. Callbacks may arrive from the
+ * import's parser and writer threads concurrently.
+ */
+public interface ImportProgressListener {
+
+    ImportProgressListener NONE = new ImportProgressListener() {
+    };
+
+    default void rowParsed() {
+    }
+
+    default void rowsSkipped(int count) {
+    }
+
+    default void rowsInserted(int count) {
+    }
+
+    /** Total bytes of the source file consumed so far, when the parser can tell. */
+    default void bytesRead(long totalBytes) {
+    }
+
+    /**
+     * Bytes consumed so far out of {@code totalBytes}, for a parser that reads a part of the
+     * file rather than the upload itself, such as the sheet inside an .xlsx.
+     */
+    default void bytesRead(long bytesRead, long totalBytes) {
+    }
+}
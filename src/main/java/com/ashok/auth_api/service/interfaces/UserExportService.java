@@ -0,0 +1,10 @@
+package com.ashok.auth_api.service.interfaces;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface UserExportService {
+    void streamUsersAsNdjson(OutputStream out) throws IOException;
+    void exportUsersAsExcel(OutputStream out) throws IOException;
+    void exportUsersAsCsv(OutputStream out) throws IOException;
+}
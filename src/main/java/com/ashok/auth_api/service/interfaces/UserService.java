@@ -4,20 +4,25 @@ import com.ashok.auth_api.dto.*;
 import com.ashok.auth_api.utils.ApiResponse;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface UserService {
     ApiResponse<SignupResponseDTO> register(SignupRequestDTO dto);
-    ApiResponse<LoginResponseDTO>login(LoginRequestDTO dto);
+    CompletableFuture<ApiResponse<LoginResponseDTO>> login(LoginRequestDTO dto);
     ApiResponse<String> registerUsersFromExcel(MultipartFile file);
+    ApiResponse<String> registerUsersFromExcel(Path file, ImportProgressListener listener);
     ApiResponse<String> registerUsersFromCSV(MultipartFile file);
-    ApiResponse<List<UserResponseDTO>> getDashboardData(String authHeader);
+    ApiResponse<String> registerUsersFromCSV(Path file, ImportProgressListener listener);
+    ApiResponse<UserPageDTO> getDashboardData(String authHeader, Long after, Integer limit);
 
     ApiResponse<DeleteUserResponseDTO> deleteUser(Long id);
 
     ApiResponse<EditUserResponseDTO> editUserById(Long id, EditUserRequestDTO dto);
 
     ApiResponse<ViewUserResponseDTO> getUserById(Long id);
+    ApiResponse<List<UserLookupDTO>> getUsersByIds(List<Long> ids);
     ApiResponse<EditUserResponseDTO> patchUserById(Long id, PatchUserRequestDTO dto);
 
 }
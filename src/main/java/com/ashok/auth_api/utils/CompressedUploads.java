@@ -0,0 +1,145 @@
+package com.ashok.auth_api.utils;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Unwraps gzip and zip uploads on the fly. A {@code .gz} file is gunzipped; for a
+ * {@code .zip} archive the first entry with one of the wanted extensions is read. Anything
+ * else is passed through untouched. Nothing is expanded to disk or memory: the caller reads
+ * the decompressed bytes as a stream, and reading past {@code maxBytes} of them fails with a
+ * {@link DecompressedSizeExceededException}, so a small zip bomb cannot run an import for
+ * hours or fill the disk.
+ */
+public final class CompressedUploads {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private CompressedUploads() {
+    }
+
+    /**
+     * Opens the content of an upload. The returned entry's name is the name of the file
+     * inside the archive ({@code users.csv} for {@code users.csv.gz}), which is what the
+     * format should be detected from.
+     */
+    public static Entry open(InputStream in, String fileName, long maxBytes, String... extensions) throws IOException {
+        String name = fileName == null ? "" : fileName;
+        String lowerName = name.toLowerCase(Locale.ROOT);
+        if (lowerName.endsWith(".gz")) {
+            return new Entry(name.substring(0, name.length() - 3),
+                    new SizeLimitedInputStream(new GZIPInputStream(in, GZIP_BUFFER_SIZE), maxBytes));
+        }
+        if (lowerName.endsWith(".zip")) {
+            ZipInputStream zip = new ZipInputStream(in);
+            try {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    if (!entry.isDirectory() && !entry.getName().startsWith("__MACOSX/")
+                            && hasExtension(entry.getName(), extensions)) {
+                        return new Entry(entry.getName(), new SizeLimitedInputStream(zip, maxBytes));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                zip.close();
+                throw e;
+            }
+            zip.close();
+            throw new ZipException("Archive contains no " + String.join(" or ", extensions) + " file");
+        }
+        return new Entry(name, in);
+    }
+
+    /** The {@code .gz} or {@code .zip} suffix of a file name, or an empty string. */
+    public static String compressionSuffix(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            return ".gz";
+        }
+        return name.endsWith(".zip") ? ".zip" : "";
+    }
+
+    private static boolean hasExtension(String name, String[] extensions) {
+        String lowerName = name.toLowerCase(Locale.ROOT);
+        for (String extension : extensions) {
+            if (lowerName.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The file inside an upload and a stream of its decompressed bytes. */
+    public record Entry(String name, InputStream content) implements Closeable {
+
+        @Override
+        public void close() throws IOException {
+            content.close();
+        }
+    }
+
+    /** More bytes were decompressed than the configured limit allows. */
+    public static class DecompressedSizeExceededException extends ZipException {
+
+        public DecompressedSizeExceededException(long maxBytes) {
+            super("Decompressed upload is larger than " + maxBytes + " bytes");
+        }
+    }
+
+    private static final class SizeLimitedInputStream extends FilterInputStream {
+
+        private final long maxBytes;
+        private long bytesRead;
+
+        private SizeLimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                advance(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) {
+                advance(skipped);
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void advance(long n) throws DecompressedSizeExceededException {
+            bytesRead += n;
+            if (bytesRead > maxBytes) {
+                throw new DecompressedSizeExceededException(maxBytes);
+            }
+        }
+    }
+}
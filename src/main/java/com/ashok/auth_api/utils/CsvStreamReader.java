@@ -0,0 +1,344 @@
+package com.ashok.auth_api.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams the records of an RFC 4180 CSV file straight from the raw bytes.
+ * <p>
+ * The first record is the header; the caller names the columns it wants and
+ * {@link #get(int)} returns them in that order, wherever they appear in the file. Fields are
+ * separated by commas, records by CRLF, LF or CR, and fields wrapped in double quotes may
+ * contain commas, line breaks and doubled quotes. A UTF-8 byte order mark is skipped.
+ * <p>
+ * Bytes are scanned in a single reusable buffer. Only the requested columns are decoded
+ * (always as UTF-8) and an unquoted field that fits in the buffer is decoded in place, so a
+ * record costs one {@code String} per requested column and nothing else. Columns the
+ * caller did not ask for are skipped without being decoded.
+ * <p>
+ * A requested or header field longer than {@link #MAX_FIELD_LENGTH} bytes fails the read
+ * with a {@link CsvFormatException}, so one runaway field (say, an unclosed quote) cannot
+ * buffer the rest of the upload. Skipped columns are never buffered and have no limit.
+ * <p>
+ * Not thread-safe.
+ */
+public final class CsvStreamReader implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final int MAX_FIELD_LENGTH = 64 * 1024;
+
+    private static final int CAPTURE = -2;
+    private static final int SKIP = -1;
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    /** Value index for each column of the file, or {@link #SKIP}. */
+    private int[] slots = new int[0];
+    private final String[] values;
+    private List<String> header;
+
+    private byte[] field = new byte[128];
+    private int fieldLength;
+    private int fieldCount;
+    private long lineNumber = 1;
+    private boolean skipping;
+
+    /**
+     * Opens a reader over {@code in} and reads the header. Fails with a
+     * {@link CsvFormatException} if the header lacks one of {@code columns}; header names
+     * are matched ignoring case and surrounding whitespace. An empty input has no records.
+     */
+    public static CsvStreamReader open(InputStream in, String... columns) throws IOException {
+        return new CsvStreamReader(in, DEFAULT_BUFFER_SIZE, columns);
+    }
+
+    public CsvStreamReader(InputStream in, int bufferSize, String... columns) throws IOException {
+        this.in = in;
+        this.buffer = new byte[Math.max(bufferSize, 4)];
+        this.values = new String[columns.length];
+        skipByteOrderMark();
+        readHeader(columns);
+    }
+
+    /** Advances to the next record; returns {@code false} at the end of the input. */
+    public boolean next() throws IOException {
+        Arrays.fill(values, null);
+        fieldCount = 0;
+        if (!ensureData()) {
+            return false;
+        }
+        int column = 0;
+        while (!readField(column)) {
+            column++;
+        }
+        fieldCount = column + 1;
+        return true;
+    }
+
+    /**
+     * Passes over the next record without decoding any of it; returns {@code false} at the
+     * end of the input. Quotes are still honoured, so records with line breaks in quoted
+     * fields are skipped whole.
+     */
+    public boolean skip() throws IOException {
+        skipping = true;
+        try {
+            return next();
+        } finally {
+            skipping = false;
+        }
+    }
+
+    /**
+     * Value of the {@code index}-th requested column in the current record, or {@code null}
+     * if the record is too short to have it.
+     */
+    public String get(int index) {
+        return values[index];
+    }
+
+    /** Number of fields in the current record, requested or not. */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /** Line the reader is on, counting line breaks inside quoted fields. */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readHeader(String[] columns) throws IOException {
+        header = new ArrayList<>();
+        boolean hasHeader = next();
+        List<String> names = header;
+        header = null;
+        if (!hasHeader) {
+            return;
+        }
+
+        slots = new int[names.size()];
+        Arrays.fill(slots, SKIP);
+        for (int i = 0; i < columns.length; i++) {
+            int column = indexOf(names, columns[i]);
+            if (column < 0) {
+                throw new CsvFormatException("Missing column '" + columns[i] + "' in CSV header");
+            }
+            slots[column] = i;
+        }
+    }
+
+    private static int indexOf(List<String> names, String column) {
+        String wanted = column.trim().toLowerCase(Locale.ROOT);
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).trim().toLowerCase(Locale.ROOT).equals(wanted)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Reads one field; returns {@code true} if it was the last one of its record. */
+    private boolean readField(int column) throws IOException {
+        int slot = header != null ? CAPTURE : skipping || column >= slots.length ? SKIP : slots[column];
+        fieldLength = 0;
+        if (!ensureData()) {
+            store(slot, "");
+            return true;
+        }
+        if (buffer[position] == '"') {
+            position++;
+            return readQuotedField(slot);
+        }
+        return readUnquotedField(slot);
+    }
+
+    private boolean readUnquotedField(int slot) throws IOException {
+        int start = position;
+        boolean spilled = false;
+        while (true) {
+            while (position < limit) {
+                byte b = buffer[position];
+                if (b == ',' || b == '\n' || b == '\r') {
+                    storeUnquoted(slot, start, spilled);
+                    if (b == ',') {
+                        position++;
+                        return false;
+                    }
+                    skipLineBreak();
+                    return true;
+                }
+                position++;
+            }
+            // the field runs past the end of the buffer: keep what we have and refill
+            if (slot != SKIP) {
+                appendToField(start, position - start);
+            }
+            spilled = true;
+            if (!fill()) {
+                storeUnquoted(slot, position, true);
+                return true;
+            }
+            start = position;
+        }
+    }
+
+    private void storeUnquoted(int slot, int start, boolean spilled) throws CsvFormatException {
+        if (slot == SKIP) {
+            return;
+        }
+        if (!spilled) {
+            checkFieldLength(position - start);
+            store(slot, decode(buffer, start, position - start));
+            return;
+        }
+        appendToField(start, position - start);
+        store(slot, decode(field, 0, fieldLength));
+    }
+
+    private boolean readQuotedField(int slot) throws IOException {
+        long startLine = lineNumber;
+        while (true) {
+            if (!ensureData()) {
+                throw new CsvFormatException("Unterminated quoted field starting on line " + startLine);
+            }
+            int start = position;
+            while (position < limit && buffer[position] != '"') {
+                if (buffer[position] == '\n') {
+                    lineNumber++;
+                }
+                position++;
+            }
+            if (slot != SKIP) {
+                appendToField(start, position - start);
+            }
+            if (position == limit) {
+                continue;
+            }
+
+            position++;
+            if (ensureData() && buffer[position] == '"') {
+                // doubled quote inside the field
+                if (slot != SKIP) {
+                    appendToField(position, 1);
+                }
+                position++;
+                continue;
+            }
+
+            if (slot != SKIP) {
+                store(slot, decode(field, 0, fieldLength));
+            }
+            if (!ensureData()) {
+                return true;
+            }
+            byte b = buffer[position];
+            if (b == ',') {
+                position++;
+                return false;
+            }
+            if (b == '\n' || b == '\r') {
+                skipLineBreak();
+                return true;
+            }
+            throw new CsvFormatException("Unexpected character after closing quote on line " + lineNumber);
+        }
+    }
+
+    private void store(int slot, String value) {
+        if (slot == CAPTURE) {
+            header.add(value);
+        } else if (slot != SKIP) {
+            values[slot] = value;
+        }
+    }
+
+    private void skipLineBreak() throws IOException {
+        if (buffer[position] == '\r') {
+            position++;
+            if (ensureData() && buffer[position] == '\n') {
+                position++;
+            }
+        } else {
+            position++;
+        }
+        lineNumber++;
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        // the three bytes may arrive in separate reads
+        while (limit < 3 && !endOfInput) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                limit += read;
+            }
+        }
+        if (limit >= 3 && buffer[0] == (byte) 0xEF && buffer[1] == (byte) 0xBB && buffer[2] == (byte) 0xBF) {
+            position = 3;
+        }
+    }
+
+    private void appendToField(int start, int length) throws CsvFormatException {
+        checkFieldLength(fieldLength + length);
+        if (fieldLength + length > field.length) {
+            field = Arrays.copyOf(field, Math.max(field.length * 2, fieldLength + length));
+        }
+        System.arraycopy(buffer, start, field, fieldLength, length);
+        fieldLength += length;
+    }
+
+    private void checkFieldLength(int length) throws CsvFormatException {
+        if (length > MAX_FIELD_LENGTH) {
+            throw new CsvFormatException("Field on line " + lineNumber + " is longer than " + MAX_FIELD_LENGTH + " bytes");
+        }
+    }
+
+    private boolean ensureData() throws IOException {
+        return position < limit || fill();
+    }
+
+    /** Replaces the buffer contents with the next chunk of input; {@code false} at the end. */
+    private boolean fill() throws IOException {
+        while (!endOfInput) {
+            int read = in.read(buffer, 0, buffer.length);
+            if (read < 0) {
+                endOfInput = true;
+            } else if (read > 0) {
+                position = 0;
+                limit = read;
+                return true;
+            }
+        }
+        position = limit;
+        return false;
+    }
+
+    private static String decode(byte[] bytes, int offset, int length) {
+        // the JDK copies pure-ASCII input into a compact string without running the decoder
+        return length == 0 ? "" : new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    /** The input is not valid CSV; the message says where. */
+    public static class CsvFormatException extends IOException {
+
+        public CsvFormatException(String message) {
+            super(message);
+        }
+    }
+}
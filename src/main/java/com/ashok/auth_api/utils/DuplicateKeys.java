@@ -0,0 +1,31 @@
+package com.ashok.auth_api.utils;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+
+import java.sql.SQLException;
+
+/** Tells a duplicate key apart from the other integrity violations a write can hit. */
+public final class DuplicateKeys {
+
+    private DuplicateKeys() {
+    }
+
+    /**
+     * Whether {@code e} is a unique-key violation. JDBC writes arrive as a
+     * {@link DuplicateKeyException}; JPA writes as a plain {@link DataIntegrityViolationException},
+     * for which the SQL state of the underlying {@link SQLException} decides.
+     */
+    public static boolean isDuplicateKey(DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                return new SQLStateSQLExceptionTranslator().translate("", null, sqlException) instanceof DuplicateKeyException;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,128 @@
+package com.ashok.auth_api.utils;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams the rows of the first sheet of an .xlsx file using POI's SAX event model.
+ * Unlike {@code XSSFWorkbook}, no cell objects are kept in memory: each row is handed
+ * to the consumer as soon as it has been parsed, so heap use does not grow with the
+ * number of rows. The shared-strings table, which holds every distinct text value of the
+ * workbook, is copied to a temp file rather than loaded onto the heap (see
+ * {@link FileBackedSharedStrings}).
+ */
+public final class ExcelStreamReader {
+
+    /** Receives how far the parser is through the sheet's XML, the part that holds the rows. */
+    @FunctionalInterface
+    public interface SheetProgress {
+
+        SheetProgress NONE = (bytesRead, totalBytes) -> {
+        };
+
+        /** {@code totalBytes} is the uncompressed size of the sheet, or -1 when the package does not record it. */
+        void bytesRead(long bytesRead, long totalBytes);
+    }
+
+    private ExcelStreamReader() {
+    }
+
+    /**
+     * Reads every physical row of the first sheet, header included. Cell values are
+     * formatted the way Excel displays them; missing cells are {@code null}.
+     */
+    public static void readFirstSheet(File file, Consumer<List<String>> rowConsumer) throws IOException {
+        readFirstSheet(file, rowConsumer, SheetProgress.NONE);
+    }
+
+    /**
+     * Like {@link #readFirstSheet(File, Consumer)}, reporting progress as the sheet is read.
+     * The shared-strings table is copied before the first row, so it is not counted.
+     */
+    public static void readFirstSheet(File file, Consumer<List<String>> rowConsumer, SheetProgress progress)
+            throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            readFirstSheet(pkg, rowConsumer, progress);
+        } catch (OpenXML4JException e) {
+            throw new IOException("Not a valid .xlsx file", e);
+        }
+    }
+
+    private static void readFirstSheet(OPCPackage pkg, Consumer<List<String>> rowConsumer, SheetProgress progress)
+            throws IOException, OpenXML4JException {
+        XSSFReader reader = new XSSFReader(pkg);
+        try (FileBackedSharedStrings strings = FileBackedSharedStrings.load(pkg)) {
+            StylesTable styles = reader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            InputStream sheetData = sheets.next();
+            long sheetSize = sheets.getSheetPart().getSize();
+            try (InputStream sheet = new ProgressInputStream(sheetData, read -> progress.bytesRead(read, sheetSize))) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, null, strings, new RowCollector(rowConsumer), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IOException("Failed to parse Excel sheet", e);
+        } catch (UncheckedIOException e) {
+            // a shared string could not be read back from its temp file
+            throw e.getCause();
+        }
+    }
+
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<List<String>> rowConsumer;
+        private List<String> cells;
+        private int lastColumn;
+
+        private RowCollector(Consumer<List<String>> rowConsumer) {
+            this.rowConsumer = rowConsumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>(4);
+            lastColumn = -1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            rowConsumer.accept(cells);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? lastColumn + 1 : new CellReference(cellReference).getCol();
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+            lastColumn = column;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.ashok.auth_api.utils;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * The shared-strings table of an .xlsx file, copied to a temp file instead of the heap.
+ * <p>
+ * Excel stores every distinct text value of a workbook once, in {@code sharedStrings.xml},
+ * and cells refer to it by index. POI's {@code ReadOnlySharedStringsTable} keeps the whole
+ * table as a list of strings, so a sheet of unique usernames, emails and passwords costs
+ * heap in proportion to its rows however the sheet itself is read. Here the table is parsed
+ * once into a data file of length-prefixed UTF-8 strings and an index file of their offsets;
+ * a lookup is two positional reads. Cells usually refer to strings in table order, so the
+ * reads go through a small window per file and mostly hit memory.
+ * <p>
+ * Text is collected the way {@code ReadOnlySharedStringsTable} does it by default: every
+ * {@code <t>} of an {@code <si>}, phonetic runs included. Not thread-safe.
+ */
+final class FileBackedSharedStrings implements SharedStrings, Closeable {
+
+    private static final String MAIN_NAMESPACE = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final int WINDOW_SIZE = 64 * 1024;
+
+    private final Window index;
+    private final Window data;
+    private int count;
+    private int uniqueCount;
+    private int size;
+
+    private FileBackedSharedStrings() throws IOException {
+        this.index = new Window(openTempFile());
+        try {
+            this.data = new Window(openTempFile());
+        } catch (IOException e) {
+            index.close();
+            throw e;
+        }
+    }
+
+    /** Copies the package's shared-strings table to disk; a package without one has no strings. */
+    static FileBackedSharedStrings load(OPCPackage pkg) throws IOException, SAXException {
+        FileBackedSharedStrings strings = new FileBackedSharedStrings();
+        try {
+            List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+            if (!parts.isEmpty()) {
+                try (InputStream in = parts.get(0).getInputStream()) {
+                    strings.readFrom(in);
+                }
+            }
+            return strings;
+        } catch (IOException | SAXException | RuntimeException e) {
+            strings.close();
+            throw e;
+        }
+    }
+
+    private void readFrom(InputStream in) throws IOException, SAXException {
+        // neither stream is closed here: that would close the channels they write to
+        DataOutputStream indexOut = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(index.channel), WINDOW_SIZE));
+        DataOutputStream dataOut = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(data.channel), WINDOW_SIZE));
+        try {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new TableHandler(indexOut, dataOut));
+            parser.parse(new InputSource(in));
+        } catch (ParserConfigurationException e) {
+            throw new SAXException("SAX parser appears to be broken - " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        indexOut.flush();
+        dataOut.flush();
+    }
+
+    @Override
+    public RichTextString getItemAt(int idx) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException("Shared string " + idx + " of " + size);
+        }
+        try {
+            long offset = index.readLong((long) idx * Long.BYTES);
+            int length = data.readInt(offset);
+            byte[] bytes = new byte[length];
+            data.read(offset + Integer.BYTES, bytes);
+            return new XSSFRichTextString(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read shared string " + idx, e);
+        }
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public int getUniqueCount() {
+        return uniqueCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            index.close();
+        } finally {
+            data.close();
+        }
+    }
+
+    private static FileChannel openTempFile() throws IOException {
+        return FileChannel.open(Files.createTempFile("xlsx-strings-", ".bin"),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    private final class TableHandler extends DefaultHandler {
+
+        private final DataOutputStream indexOut;
+        private final DataOutputStream dataOut;
+        private final StringBuilder characters = new StringBuilder(64);
+        private long offset;
+        private boolean tIsOpen;
+
+        private TableHandler(DataOutputStream indexOut, DataOutputStream dataOut) {
+            this.indexOut = indexOut;
+            this.dataOut = dataOut;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if (uri != null && !uri.equals(MAIN_NAMESPACE)) {
+                return;
+            }
+            switch (localName) {
+                case "sst" -> {
+                    String countValue = attributes.getValue("count");
+                    if (countValue != null) {
+                        count = Integer.parseInt(countValue);
+                    }
+                    String uniqueCountValue = attributes.getValue("uniqueCount");
+                    if (uniqueCountValue != null) {
+                        uniqueCount = Integer.parseInt(uniqueCountValue);
+                    }
+                }
+                case "si" -> characters.setLength(0);
+                case "t" -> tIsOpen = true;
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if (uri != null && !uri.equals(MAIN_NAMESPACE)) {
+                return;
+            }
+            if (localName.equals("si")) {
+                append(characters.toString());
+            } else if (localName.equals("t")) {
+                tIsOpen = false;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (tIsOpen) {
+                characters.append(ch, start, length);
+            }
+        }
+
+        private void append(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            try {
+                indexOut.writeLong(offset);
+                dataOut.writeInt(bytes.length);
+                dataOut.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            offset += Integer.BYTES + bytes.length;
+            size++;
+        }
+    }
+
+    /** Positional reads from a file through a buffer holding the last region read. */
+    private static final class Window implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(WINDOW_SIZE).limit(0);
+        private long start;
+
+        private Window(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        long readLong(long position) throws IOException {
+            return slice(position, Long.BYTES).getLong();
+        }
+
+        int readInt(long position) throws IOException {
+            return slice(position, Integer.BYTES).getInt();
+        }
+
+        void read(long position, byte[] target) throws IOException {
+            if (target.length <= WINDOW_SIZE) {
+                slice(position, target.length).get(target);
+                return;
+            }
+            ByteBuffer direct = ByteBuffer.wrap(target);
+            while (direct.hasRemaining()) {
+                if (channel.read(direct, position + direct.position()) < 0) {
+                    throw new IOException("Shared strings file ends early");
+                }
+            }
+        }
+
+        /** The buffer, positioned at {@code position} with at least {@code length} bytes left. */
+        private ByteBuffer slice(long position, int length) throws IOException {
+            if (position < start || position + length > start + buffer.limit()) {
+                buffer.clear();
+                start = position;
+                while (buffer.position() < length) {
+                    if (channel.read(buffer, start + buffer.position()) < 0) {
+                        throw new IOException("Shared strings file ends early");
+                    }
+                }
+                buffer.flip();
+            }
+            return buffer.position((int) (position - start));
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.ashok.auth_api.utils;
 public class HttpStatusCodes {
     public static final int OK = 200;
     public static final int CREATED = 201;
-    //public static final int ACCEPTED = 202;
+    public static final int ACCEPTED = 202;
     //public static final int NO_CONTENT = 201;
 
     public static final int BAD_REQUEST = 400;
@@ -11,8 +11,9 @@ public class HttpStatusCodes {
    // public static final int FORBIDDEN = 403;
     public static final int NOT_FOUND = 404;
     public static final int CONFLICT = 409;
+    public static final int PAYLOAD_TOO_LARGE = 413;
 
     public static final int INTERNAL_SERVER_ERROR = 500;
    // public static final int BAD_GATEWAY = 502;
-   // public static final int SERVICE_UNAVAILABLE = 503;
+    public static final int SERVICE_UNAVAILABLE = 503;
 }
@@ -0,0 +1,181 @@
+package com.ashok.auth_api.utils;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-request phase timings, reported in the {@code Server-Timing} response header.
+ * <p>
+ * One instance is created per request and bound to the thread handling it; code on the
+ * request path adds to it through the static helpers, which do nothing when no request is
+ * bound (batch imports, startup, tests). Work handed to another executor carries the binding
+ * along through {@link #propagate(Runnable)}. Phases may be entered by several threads of the
+ * same request, so all counters are atomic.
+ */
+public final class RequestTimings {
+
+    public enum Phase {
+        JWT("jwt", "JWT parsing"),
+        SERVICE("svc", "Service layer"),
+        DB("db", "Repository calls"),
+        HASH_WAIT("hashq", "Waiting for a BCrypt permit"),
+        HASH("hash", "BCrypt"),
+        SERIALIZE("ser", "Response serialization");
+
+        private final String metricName;
+        private final String description;
+
+        Phase(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLongArray nanos = new AtomicLongArray(PHASES.length);
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(PHASES.length);
+    private final AtomicIntegerArray depth = new AtomicIntegerArray(PHASES.length);
+    private volatile long serializationStartNanos;
+
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(RequestTimings timings) {
+        CURRENT.set(timings);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /** Adds the time since {@code startNanos} to a phase of the current request, if any. */
+    public static void record(Phase phase, long startNanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.add(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    /** Marks the point where the handler result is handed to the message converters. */
+    public static void markSerializationStart() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null && timings.serializationStartNanos == 0) {
+            timings.serializationStartNanos = System.nanoTime();
+        }
+    }
+
+    /** Wraps a task so that it runs with the caller's request bound, for use as a task decorator. */
+    public static Runnable propagate(Runnable task) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            return task;
+        }
+        return () -> {
+            RequestTimings previous = CURRENT.get();
+            CURRENT.set(timings);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    public void add(Phase phase, long elapsedNanos) {
+        nanos.addAndGet(phase.ordinal(), elapsedNanos);
+        counts.incrementAndGet(phase.ordinal());
+    }
+
+    /**
+     * Enters a phase and returns whether this is the outermost entry. Nested entries
+     * (a service calling another service, a repository fragment behind the repository proxy)
+     * must not be added again, so only the outermost caller times the phase.
+     */
+    public boolean enter(Phase phase) {
+        return depth.getAndIncrement(phase.ordinal()) == 0;
+    }
+
+    public void exit(Phase phase, long elapsedNanos) {
+        depth.decrementAndGet(phase.ordinal());
+        add(phase, elapsedNanos);
+    }
+
+    public void leave(Phase phase) {
+        depth.decrementAndGet(phase.ordinal());
+    }
+
+    public long getNanos(Phase phase) {
+        return nanos.get(phase.ordinal());
+    }
+
+    public int getCount(Phase phase) {
+        return counts.get(phase.ordinal());
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * Closes the serialization phase, if one was started, at {@code endNanos}. Called once
+     * the response body has been written.
+     */
+    public void finishSerialization(long endNanos) {
+        long serializationStart = serializationStartNanos;
+        if (serializationStart != 0 && getCount(Phase.SERIALIZE) == 0) {
+            add(Phase.SERIALIZE, endNanos - serializationStart);
+        }
+    }
+
+    /**
+     * Formats the header value, e.g. {@code jwt;dur=0.12, svc;dur=84.31, db;dur=1.02,
+     * hash;dur=82.77, ser;dur=0.21, total;dur=85.14}. Durations are in milliseconds as the
+     * specification requires; phases that did not run are left out.
+     */
+    public String toServerTimingHeader(long endNanos) {
+        StringBuilder header = new StringBuilder(128);
+        for (Phase phase : PHASES) {
+            if (getCount(phase) > 0) {
+                appendMetric(header, phase.metricName, getNanos(phase))
+                        .append(";desc=\"").append(phase.description).append('"');
+            }
+        }
+        return appendMetric(header, "total", endNanos - startNanos).toString();
+    }
+
+    /** Formats the phases as {@code key=value} pairs for a log line. */
+    public String toLogFields(long endNanos) {
+        StringBuilder fields = new StringBuilder(128);
+        fields.append("total_ms=").append(toMillis(endNanos - startNanos));
+        for (Phase phase : PHASES) {
+            if (getCount(phase) > 0) {
+                fields.append(' ').append(phase.metricName).append("_ms=").append(toMillis(getNanos(phase)));
+            }
+        }
+        return fields.toString();
+    }
+
+    private static StringBuilder appendMetric(StringBuilder header, String name, long elapsedNanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        return header.append(name).append(";dur=").append(toMillis(elapsedNanos));
+    }
+
+    private static String toMillis(long elapsedNanos) {
+        return String.format(Locale.ROOT, "%.2f", elapsedNanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,108 @@
+package com.ashok.auth_api.utils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one. The first caller for a key runs the
+ * loader on its own thread; callers arriving while it runs wait for that result instead of
+ * loading again, for at most {@code maxWait}. A loader failure is rethrown to every caller
+ * that shared it. Nothing is remembered once a call completes: the next caller loads afresh.
+ * <p>
+ * A loader must not call back into the same instance with the same key.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public SingleFlight(Duration maxWait) {
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /**
+     * Returns the loader's result for {@code key}, running it only if no call for the key is
+     * in flight.
+     *
+     * @throws TimeoutException if the in-flight call did not finish within {@code maxWait}
+     * @throws InterruptedException if interrupted while waiting for the in-flight call
+     */
+    public V execute(K key, Supplier<V> loader) throws TimeoutException, InterruptedException {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            shared.increment();
+            return await(existing);
+        }
+
+        executed.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            // only our own flight: forget() may already have let a newer one in
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Stops callers from joining the call now in flight for {@code key}, if any; the next
+     * caller runs the loader again. Used after a write, so that reads issued after it do not
+     * share a result read before it. Callers already waiting still get the old result.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    private V await(CompletableFuture<V> flight) throws TimeoutException, InterruptedException {
+        try {
+            return flight.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Shared call failed", cause);
+        }
+    }
+
+    /** Calls that ran the loader. */
+    public long getExecuted() {
+        return executed.sum();
+    }
+
+    /** Calls that took the result of another caller's loader instead of running their own. */
+    public long getShared() {
+        return shared.sum();
+    }
+
+    /** Callers that gave up waiting for a shared result. */
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
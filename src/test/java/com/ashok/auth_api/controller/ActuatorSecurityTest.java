@@ -0,0 +1,52 @@
+package com.ashok.auth_api.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** The scrape endpoints are open on the management port only, and nothing else is. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class ActuatorSecurityTest {
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void testPrometheusIsOpenOnManagementPortOnly() {
+        assertNotEquals(port, managementPort);
+
+        ResponseEntity<String> scrape = get(managementPort, "/actuator/prometheus");
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+        // the email filter's startup load has already gone through the repository
+        assertTrue(scrape.getBody().contains("spring_data_repository_invocations_seconds_bucket{"));
+        assertTrue(scrape.getBody().contains("repository=\"UserRepository\""));
+
+        assertFalse(get(port, "/actuator/prometheus").getStatusCode().is2xxSuccessful());
+    }
+
+    @Test
+    void testOtherActuatorEndpointsNeedAToken() {
+        assertEquals(HttpStatus.OK, get(managementPort, "/actuator/health").getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, get(managementPort, "/actuator/emailfilter").getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, get(managementPort, "/actuator/metrics").getStatusCode());
+    }
+
+    private ResponseEntity<String> get(int targetPort, String path) {
+        return restTemplate.getForEntity("http://localhost:" + targetPort + path, String.class);
+    }
+}
@@ -1,6 +1,10 @@
 package com.ashok.auth_api.controller;
 
 import com.ashok.auth_api.dto.*;
+import com.ashok.auth_api.exceptions.ExportTooLargeException;
+import com.ashok.auth_api.exceptions.UserAlreadyExistsException;
+import com.ashok.auth_api.service.interfaces.ImportJobService;
+import com.ashok.auth_api.service.interfaces.UserExportService;
 import com.ashok.auth_api.service.interfaces.UserService;
 import com.ashok.auth_api.utils.ApiResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -16,13 +20,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +46,12 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private ImportJobService importJobService;
+
+    @MockBean
+    private UserExportService userExportService;
+
     private final ObjectMapper mapper = new ObjectMapper();
 
     @Test
@@ -54,17 +69,33 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.message").value("user registered successfully"));
     }
 
+    @Test
+    void testSignup_DuplicateEmail() throws Exception {
+        SignupRequestDTO request = new SignupRequestDTO("john", "john@mail.com", "password");
+        when(userService.register(request)).thenThrow(new UserAlreadyExistsException("Email already registered"));
+
+        mockMvc.perform(post("/api/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Email already registered"));
+    }
+
     @Test
     void testLogin() throws Exception {
         LoginRequestDTO loginDto = new LoginRequestDTO("john@mail.com", "password");
         LoginResponseDTO tokenDto = new LoginResponseDTO("fake-token");
         ApiResponse<LoginResponseDTO> response = new ApiResponse<>(200, "Login successful", tokenDto);
 
-        when(userService.login(loginDto)).thenReturn(response);
+        when(userService.login(loginDto)).thenReturn(CompletableFuture.completedFuture(response));
 
-        mockMvc.perform(post("/api/login")
+        MvcResult result = mockMvc.perform(post("/api/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(loginDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Login successful"))
                 .andExpect(jsonPath("$.data.token").value("fake-token"));
@@ -73,15 +104,18 @@ class UserControllerTest {
     @Test
     void testDashboard() throws Exception {
         UserResponseDTO dto = new UserResponseDTO(1L, "john", "john@mail.com", "hashedPassword");
-        ApiResponse<List<UserResponseDTO>> response = new ApiResponse<>(200, "Fetched all users", List.of(dto));
+        ApiResponse<UserPageDTO> response = new ApiResponse<>(200, "Fetched users", new UserPageDTO(List.of(dto), 1L));
 
-        when(userService.getDashboardData(anyString())).thenReturn(response);
+        when(userService.getDashboardData(anyString(), eq(0L), eq(1))).thenReturn(response);
 
         mockMvc.perform(get("/api/dashboard")
+                        .param("after", "0")
+                        .param("limit", "1")
                         .header("Authorization", "Bearer valid-token"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.message").value("Fetched all users"))
-                .andExpect(jsonPath("$.data[0].email").value("john@mail.com"));
+                .andExpect(jsonPath("$.message").value("Fetched users"))
+                .andExpect(jsonPath("$.data.users[0].email").value("john@mail.com"))
+                .andExpect(jsonPath("$.data.nextCursor").value(1));
     }
 
     @Test
@@ -141,6 +175,76 @@ class UserControllerTest {
     }
 
 
+    @Test
+    void testStartImportJob() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv",
+                "username,email,password\njohn,john@example.com,pass123".getBytes(StandardCharsets.UTF_8));
+        ImportJobStatusDTO status = new ImportJobStatusDTO("job-1", "test.csv", "QUEUED", 0, 0, 0, 0, null, null);
+        when(importJobService.submitImport(any())).thenReturn(new ApiResponse<>(202, "Import accepted", status));
+
+        mockMvc.perform(multipart("/api/import-jobs").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.data.id").value("job-1"));
+    }
+
+    @Test
+    void testGetImportJob() throws Exception {
+        ImportJobStatusDTO status = new ImportJobStatusDTO("job-1", "test.csv", "RUNNING", 1000, 900, 100, 250.0, 12L, null);
+        when(importJobService.getImportJob("job-1")).thenReturn(new ApiResponse<>(200, "Import job fetched successfully", status));
+
+        mockMvc.perform(get("/api/import-jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.rowsInserted").value(900))
+                .andExpect(jsonPath("$.data.etaSeconds").value(12));
+    }
+
+    @Test
+    void testStreamUsers() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userExportService).streamUsersAsNdjson(any());
+
+        mockMvc.perform(get("/api/users/stream"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void testExportUsersAsCsv() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("id,username,email\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userExportService).exportUsersAsCsv(any());
+
+        mockMvc.perform(get("/api/users/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"users.csv\""))
+                .andExpect(content().string("id,username,email\r\n"));
+    }
+
+    @Test
+    void testExportUsers_UnsupportedFormat() throws Exception {
+        mockMvc.perform(get("/api/users/export").param("format", "pdf"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported export format: pdf"));
+    }
+
+    @Test
+    void testExportUsers_TooManyUsersForExcel() throws Exception {
+        doThrow(new ExportTooLargeException(1_048_575)).when(userExportService).exportUsersAsExcel(any());
+
+        mockMvc.perform(get("/api/users/export").param("format", "xlsx"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist("Content-Disposition"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message").value(
+                        "More than 1048575 users do not fit on one Excel sheet; use format=csv or GET /api/users/stream"));
+    }
+
     @Test
     void testDeleteUser() throws Exception {
         DeleteUserResponseDTO dto = new DeleteUserResponseDTO(1L, "john", "john@mail.com", "pwd");
@@ -180,6 +284,34 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.data.username").value("john"));
     }
 
+    @Test
+    void testGetUsersByIds() throws Exception {
+        List<UserLookupDTO> users = List.of(
+                new UserLookupDTO(2L, true, new ViewUserResponseDTO(2L, "john", "john@mail.com")),
+                new UserLookupDTO(9L, false, null));
+        when(userService.getUsersByIds(List.of(2L, 9L)))
+                .thenReturn(new ApiResponse<>(200, "Fetched 1 of 2 users", users));
+
+        mockMvc.perform(get("/api/users").param("ids", "2,9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].user.username").value("john"))
+                .andExpect(jsonPath("$.data[1].id").value(9))
+                .andExpect(jsonPath("$.data[1].found").value(false));
+    }
+
+    @Test
+    void testLookupUsers() throws Exception {
+        List<UserLookupDTO> users = List.of(new UserLookupDTO(9L, false, null));
+        when(userService.getUsersByIds(List.of(9L)))
+                .thenReturn(new ApiResponse<>(200, "Fetched 0 of 1 users", users));
+
+        mockMvc.perform(post("/api/users/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new UserIdsRequestDTO(List.of(9L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].found").value(false));
+    }
+
     @Test
     void testPatchUser() throws Exception {
         PatchUserRequestDTO req = new PatchUserRequestDTO("john", "john@mail.com", "pass");
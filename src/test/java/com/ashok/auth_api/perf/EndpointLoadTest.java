@@ -0,0 +1,137 @@
+package com.ashok.auth_api.perf;
+
+import com.ashok.auth_api.model.User;
+import com.ashok.auth_api.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the main endpoints one after the other against the {@code perf} profile
+ * (in-memory H2, no network) and reports throughput and latency percentiles for each.
+ * <p>
+ * {@code ./gradlew perfTest --tests '*EndpointLoadTest' -Dperf.concurrency=32 -Dperf.duration=20s}
+ * <ul>
+ *     <li>{@code perf.concurrency}: concurrent clients per endpoint (default 16)</li>
+ *     <li>{@code perf.duration}: how long each endpoint is driven (default 10s)</li>
+ *     <li>{@code perf.users}: users seeded before the run (default 10000)</li>
+ * </ul>
+ * The table is printed and also written to {@code build/reports/perf/endpoint-load.txt}.
+ */
+@Tag("perf")
+@ActiveProfiles("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class EndpointLoadTest {
+
+    private static final String PASSWORD = "secret123";
+
+    private final int concurrency = Integer.getInteger("perf.concurrency", 16);
+    private final Duration duration = Duration.parse("PT" + System.getProperty("perf.duration", "10s"));
+    private final int seededUsers = Integer.getInteger("perf.users", 10_000);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void mainEndpoints() throws Exception {
+        long[] ids = seedUsers();
+        String token = login("seed0@example.com");
+
+        List<LoadGenerator.Result> results = new ArrayList<>();
+        results.add(LoadGenerator.run("POST /api/signup", concurrency, duration, 201, (worker, n) ->
+                send(post("/api/signup", "{\"username\":\"load" + n + "\",\"email\":\"load" + n
+                        + "@example.com\",\"password\":\"" + PASSWORD + "\"}"))));
+        results.add(LoadGenerator.run("POST /api/login", concurrency, duration, 200, (worker, n) ->
+                send(post("/api/login", "{\"email\":\"seed" + (n % seededUsers) + "@example.com\",\"password\":\""
+                        + PASSWORD + "\"}"))));
+        results.add(LoadGenerator.run("GET /api/dashboard", concurrency, duration, 200, (worker, n) ->
+                send(get("/api/dashboard?limit=50&after=" + ids[ThreadLocalRandom.current().nextInt(ids.length)], token))));
+        results.add(LoadGenerator.run("GET /api/users/{id}", concurrency, duration, 200, (worker, n) ->
+                send(get("/api/users/" + ids[ThreadLocalRandom.current().nextInt(ids.length)], token))));
+
+        StringBuilder report = new StringBuilder()
+                .append(String.format("%d seeded users, %d clients per endpoint, %ds each%n",
+                        seededUsers, concurrency, duration.toSeconds()))
+                .append(LoadGenerator.Result.header()).append(System.lineSeparator());
+        for (LoadGenerator.Result result : results) {
+            report.append(result.row()).append(System.lineSeparator());
+        }
+        System.out.println();
+        System.out.println(report);
+        Path reportFile = Path.of("build", "reports", "perf", "endpoint-load.txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, report);
+
+        for (LoadGenerator.Result result : results) {
+            assertTrue(result.requests() > 0, result.name() + " completed no requests");
+        }
+    }
+
+    /** Inserts the users in one JDBC batch, sharing a single BCrypt hash to keep setup fast. */
+    private long[] seedUsers() {
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<User> users = new ArrayList<>(seededUsers);
+        for (int i = 0; i < seededUsers; i++) {
+            users.add(new User(null, "seed" + i, "seed" + i + "@example.com", hash));
+        }
+        userRepository.batchInsert(users);
+        return userRepository.findAll().stream().mapToLong(User::getId).toArray();
+    }
+
+    private String login(String email) throws Exception {
+        HttpResponse<String> response = client.send(post("/api/login",
+                "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}"), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        return mapper.readTree(response.body()).path("data").path("token").asText();
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+}
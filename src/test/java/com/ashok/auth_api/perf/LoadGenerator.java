@@ -0,0 +1,103 @@
+package com.ashok.auth_api.perf;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator: {@code concurrency} workers each send one request after the
+ * other for {@code duration} and record every latency. A request counts as an error when
+ * it throws or returns an unexpected status; errors are broken down by status, so bulkhead
+ * rejections (503) can be told apart from failures.
+ */
+final class LoadGenerator {
+
+    @FunctionalInterface
+    interface Request {
+        /** Sends one request and returns its HTTP status. */
+        int send(int worker, long sequence) throws Exception;
+    }
+
+    private LoadGenerator() {
+    }
+
+    static Result run(String name, int concurrency, Duration duration, int expectedStatus, Request request)
+            throws InterruptedException {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        Map<String, LongAdder> errors = new ConcurrentSkipListMap<>();
+        AtomicLong sequence = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int worker = i;
+            workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long requestStart = System.nanoTime();
+                    try {
+                        int status = request.send(worker, sequence.getAndIncrement());
+                        if (status != expectedStatus) {
+                            errors.computeIfAbsent(String.valueOf(status), key -> new LongAdder()).increment();
+                            continue;
+                        }
+                        latencies.add(System.nanoTime() - requestStart);
+                    } catch (Exception e) {
+                        errors.computeIfAbsent(e.getClass().getSimpleName(), key -> new LongAdder()).increment();
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(duration.toMillis() + 120_000, TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((key, count) -> errorCounts.put(key, count.sum()));
+        return new Result(name, concurrency, sorted, errorCounts, elapsed);
+    }
+
+    record Result(String name, int concurrency, List<Long> sortedNanos, Map<String, Long> errors, long elapsedNanos) {
+
+        long requests() {
+            return sortedNanos.size();
+        }
+
+        /** Successful requests per second. */
+        double throughput() {
+            return sortedNanos.size() * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        double percentileMillis(double p) {
+            if (sortedNanos.isEmpty()) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(p * sortedNanos.size()) - 1;
+            return sortedNanos.get(Math.max(index, 0)) / 1_000_000.0;
+        }
+
+        static String header() {
+            return String.format("%-22s %6s %9s %9s %9s %9s %9s %9s  %s",
+                    "endpoint", "conc", "ok", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+        }
+
+        String row() {
+            return String.format("%-22s %6d %9d %9.1f %9.2f %9.2f %9.2f %9.2f  %s",
+                    name, concurrency, requests(), throughput(), percentileMillis(0.50), percentileMillis(0.90),
+                    percentileMillis(0.99), percentileMillis(1.0), errors.isEmpty() ? "-" : errors);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.ashok.auth_api.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures how a cheap authenticated endpoint ({@code GET /api/users/{id}}) holds up while
+ * {@code /api/login} is flooded. Tomcat gets a deliberately small worker pool so that
+ * request threads blocked on BCrypt show up as lost throughput on the cheap endpoint.
+ * <p>
+ * Run with {@code ./gradlew perfTest}; results are printed to the test output.
+ */
+@Tag("perf")
+@ActiveProfiles("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=8",
+        "app.password-hashing.max-waiting=10000",
+        "app.password-hashing.max-wait=60s"
+})
+class LoginFloodLoadTest {
+
+    private static final Duration MEASUREMENT = Duration.ofSeconds(5);
+    private static final int READER_THREADS = 4;
+    private static final int FLOOD_THREADS = 48;
+
+    @LocalServerPort
+    private int port;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void cheapEndpointThroughputDuringLoginFlood() throws Exception {
+        String loginBody = "{\"email\":\"flood@example.com\",\"password\":\"secret\"}";
+        send(post("/api/signup", "{\"username\":\"flood\",\"email\":\"flood@example.com\",\"password\":\"secret\"}"));
+        HttpResponse<String> login = send(post("/api/login", loginBody));
+        String token = mapper.readTree(login.body()).path("data").path("token").asText();
+        HttpResponse<String> users = send(HttpRequest.newBuilder(uri("/api/dashboard?limit=1"))
+                .header("Authorization", "Bearer " + token).GET().build());
+        JsonNode firstUser = mapper.readTree(users.body()).path("data").path("users").get(0);
+        HttpRequest cheap = HttpRequest.newBuilder(uri("/api/users/" + firstUser.path("id").asLong()))
+                .header("Authorization", "Bearer " + token).timeout(Duration.ofSeconds(60)).GET().build();
+
+        Result idle = measure(cheap);
+
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        AtomicLong logins = new AtomicLong();
+        ExecutorService flood = Executors.newFixedThreadPool(FLOOD_THREADS);
+        for (int i = 0; i < FLOOD_THREADS; i++) {
+            flood.submit(() -> {
+                while (flooding.get()) {
+                    try {
+                        send(post("/api/login", loginBody));
+                        logins.incrementAndGet();
+                    } catch (Exception ignored) {
+                        // keep flooding
+                    }
+                }
+                return null;
+            });
+        }
+        Thread.sleep(1_000);
+        Result underFlood = measure(cheap);
+        flooding.set(false);
+        flood.shutdown();
+        assertTrue(flood.awaitTermination(2, TimeUnit.MINUTES));
+
+        System.out.printf("%n%-28s %10s %10s %10s%n", "GET /api/users/{id}", "req/s", "p50 ms", "p99 ms");
+        System.out.printf("%-28s %10.1f %10.1f %10.1f%n", "idle", idle.throughput(), idle.p50(), idle.p99());
+        System.out.printf("%-28s %10.1f %10.1f %10.1f%n", "during login flood", underFlood.throughput(), underFlood.p50(), underFlood.p99());
+        System.out.printf("logins completed during flood: %d%n%n", logins.get());
+
+        assertTrue(idle.requests() > 0);
+        assertTrue(underFlood.requests() > 0);
+    }
+
+    private Result measure(HttpRequest request) throws InterruptedException {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        long deadline = System.nanoTime() + MEASUREMENT.toNanos();
+        ExecutorService readers = Executors.newFixedThreadPool(READER_THREADS);
+        for (int i = 0; i < READER_THREADS; i++) {
+            readers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    HttpResponse<String> response = send(request);
+                    assertEquals(200, response.statusCode());
+                    latencies.add(System.nanoTime() - start);
+                }
+                return null;
+            });
+        }
+        readers.shutdown();
+        assertTrue(readers.awaitTermination(2, TimeUnit.MINUTES));
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return new Result(sorted, MEASUREMENT);
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private record Result(List<Long> sortedNanos, Duration window) {
+
+        int requests() {
+            return sortedNanos.size();
+        }
+
+        double throughput() {
+            return sortedNanos.size() / (window.toMillis() / 1000.0);
+        }
+
+        double p50() {
+            return percentile(0.50);
+        }
+
+        double p99() {
+            return percentile(0.99);
+        }
+
+        private double percentile(double p) {
+            if (sortedNanos.isEmpty()) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(p * sortedNanos.size()) - 1;
+            return sortedNanos.get(Math.max(index, 0)) / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.ashok.auth_api.perf;
+
+import com.ashok.auth_api.model.User;
+import com.ashok.auth_api.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress test for the insert-first signup.
+ * <ul>
+ *     <li>Correctness: groups of clients sign up with the same email at the same instant over
+ *     HTTP; exactly one per group must get {@code 201}, the rest {@code 409}, and the table
+ *     must end up with one row per email.</li>
+ *     <li>Throughput: the write path of signup is driven directly against the repository,
+ *     once as the old lookup-then-insert and once as the plain insert. BCrypt is left out
+ *     (one shared hash) because it would otherwise hide the database round trip.</li>
+ * </ul>
+ * {@code ./gradlew perfTest --tests '*SignupConcurrencyStressTest' -Dperf.concurrency=32 -Dperf.duration=20s}
+ * <p>
+ * The throughput table is printed and also written to {@code build/reports/perf/signup-stress.txt}.
+ */
+@Tag("perf")
+@ActiveProfiles("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.password-hashing.max-waiting=10000",
+        "app.password-hashing.max-wait=60s"
+})
+class SignupConcurrencyStressTest {
+
+    private static final int EMAILS = 5;
+    private static final int CLIENTS_PER_EMAIL = 16;
+
+    private final int concurrency = Integer.getInteger("perf.concurrency", 16);
+    private final Duration duration = Duration.parse("PT" + System.getProperty("perf.duration", "5s"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void concurrentSignupsWithOneEmailCreateOneUser() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS_PER_EMAIL);
+        try {
+            for (int i = 0; i < EMAILS; i++) {
+                String email = "race" + i + "@example.com";
+                String body = "{\"username\":\"race" + i + "\",\"email\":\"" + email + "\",\"password\":\"secret\"}";
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+                for (int c = 0; c < CLIENTS_PER_EMAIL; c++) {
+                    responses.add(clients.submit(() -> {
+                        start.await();
+                        return client.send(post(body), HttpResponse.BodyHandlers.ofString());
+                    }));
+                }
+                start.countDown();
+
+                int created = 0;
+                for (Future<HttpResponse<String>> future : responses) {
+                    HttpResponse<String> response = future.get();
+                    if (response.statusCode() == 201) {
+                        created++;
+                    } else {
+                        assertEquals(409, response.statusCode(), response.body());
+                        assertEquals("Email already registered", mapper.readTree(response.body()).path("message").asText());
+                    }
+                }
+                assertEquals(1, created, "signups accepted for " + email);
+                assertEquals(List.of(email), userRepository.findExistingEmails(List.of(email)));
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void insertFirstSignupThroughput() throws Exception {
+        String hash = passwordEncoder.encode("secret");
+        // both paths are warmed up first so the first one measured does not pay for JIT compilation
+        Duration warmUp = duration.dividedBy(5);
+        LoadGenerator.run("warm-up", concurrency, warmUp, 201, (worker, n) -> lookupThenInsert("warm" + n, hash));
+        LoadGenerator.run("warm-up", concurrency, warmUp, 201, (worker, n) -> insert("warm-insert" + n, hash));
+
+        long rowsBefore = userRepository.count();
+        LoadGenerator.Result lookupFirst = LoadGenerator.run("lookup, then insert", concurrency, duration, 201,
+                (worker, n) -> lookupThenInsert("lookup" + n, hash));
+        long rowsAfterLookupFirst = userRepository.count();
+        LoadGenerator.Result insertFirst = LoadGenerator.run("insert", concurrency, duration, 201,
+                (worker, n) -> insert("insert" + n, hash));
+        long rowsAfterInsertFirst = userRepository.count();
+
+        StringBuilder report = new StringBuilder()
+                .append(String.format("signup write path, %d clients, %ds each%n", concurrency, duration.toSeconds()))
+                .append(LoadGenerator.Result.header()).append(System.lineSeparator())
+                .append(lookupFirst.row()).append(System.lineSeparator())
+                .append(insertFirst.row()).append(System.lineSeparator())
+                .append(String.format("insert-first throughput: %.2fx%n", insertFirst.throughput() / lookupFirst.throughput()));
+        System.out.println();
+        System.out.println(report);
+        Path reportFile = Path.of("build", "reports", "perf", "signup-stress.txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, report);
+
+        assertTrue(lookupFirst.requests() > 0 && insertFirst.requests() > 0);
+        assertTrue(lookupFirst.errors().isEmpty(), lookupFirst.errors().toString());
+        assertTrue(insertFirst.errors().isEmpty(), insertFirst.errors().toString());
+        assertEquals(lookupFirst.requests(), rowsAfterLookupFirst - rowsBefore);
+        assertEquals(insertFirst.requests(), rowsAfterInsertFirst - rowsAfterLookupFirst);
+    }
+
+    /** The write path signup had before: a lookup by email, then the insert. */
+    private int lookupThenInsert(String username, String hash) {
+        if (userRepository.findByEmail(username + "@example.com").isPresent()) {
+            return 409;
+        }
+        return insert(username, hash);
+    }
+
+    private int insert(String username, String hash) {
+        try {
+            userRepository.save(new User(null, username, username + "@example.com", hash));
+            return 201;
+        } catch (DataIntegrityViolationException e) {
+            return 409;
+        }
+    }
+
+    private HttpRequest post(String body) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/signup"))
+                .timeout(Duration.ofSeconds(120))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
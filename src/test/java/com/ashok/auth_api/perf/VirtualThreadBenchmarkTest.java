@@ -0,0 +1,196 @@
+package com.ashok.auth_api.perf;
+
+import com.ashok.auth_api.AuthApiApplication;
+import com.ashok.auth_api.model.User;
+import com.ashok.auth_api.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the platform-thread Tomcat pool with the {@code virtual-threads} profile on a
+ * workload bound by database latency: every {@code findById} is delayed by
+ * {@link #DB_LATENCY}, the way a slow query parks the request thread on a socket read.
+ * More clients than Tomcat has platform threads hit {@code GET /api/users/{id}}, each for a
+ * user of its own, so single-flight lookups have nothing to collapse; the test reports how
+ * many requests were in flight at once and the latency percentiles.
+ * <p>
+ * Run with {@code ./gradlew perfTest}; results are printed to the test output.
+ */
+@Tag("perf")
+class VirtualThreadBenchmarkTest {
+
+    private static final Duration DB_LATENCY = Duration.ofMillis(100);
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 10;
+    private static final int PLATFORM_THREADS = 50;
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void dbLatencyBoundWorkload() throws Exception {
+        Result platform = run("platform");
+        Result virtual = run("virtual-threads");
+
+        System.out.printf("%n%d clients x %d requests, %d ms simulated DB latency, %d Tomcat platform threads%n",
+                CLIENTS, REQUESTS_PER_CLIENT, DB_LATENCY.toMillis(), PLATFORM_THREADS);
+        System.out.printf("%-18s %14s %10s %10s %10s%n", "mode", "max in-flight", "req/s", "p50 ms", "p99 ms");
+        for (Result result : List.of(platform, virtual)) {
+            System.out.printf("%-18s %14d %10.1f %10.1f %10.1f%n", result.mode(), result.maxInFlight(),
+                    result.throughput(), result.percentile(0.50), result.percentile(0.99));
+        }
+        System.out.println();
+
+        assertTrue(platform.maxInFlight() <= PLATFORM_THREADS);
+        assertTrue(virtual.maxInFlight() > PLATFORM_THREADS);
+    }
+
+    private Result run(String mode) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(AuthApiApplication.class, SlowDatabaseConfig.class)
+                .profiles("perf");
+        if (!mode.equals("platform")) {
+            builder.profiles(mode);
+        }
+        // passed as arguments so they override application.properties; the user cache is off
+        // so every request reaches the (slow) repository
+        try (ConfigurableApplicationContext context = builder.run(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--server.tomcat.threads.max=" + PLATFORM_THREADS,
+                "--spring.cache.type=none")) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            String email = "bench-" + mode + "@example.com";
+            send(post(port, "/api/signup", "{\"username\":\"bench\",\"email\":\"" + email + "\",\"password\":\"secret\"}"));
+            HttpResponse<String> login = send(post(port, "/api/login", "{\"email\":\"" + email + "\",\"password\":\"secret\"}"));
+            String token = mapper.readTree(login.body()).path("data").path("token").asText();
+            long[] ids = seedUsers(context.getBean(UserRepository.class), mode);
+
+            inFlight.set(0);
+            maxInFlight.set(0);
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+            long start = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < CLIENTS; i++) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/" + ids[i]))
+                            .header("Authorization", "Bearer " + token)
+                            .timeout(Duration.ofSeconds(120))
+                            .GET().build();
+                    clients.submit(() -> {
+                        for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                            long requestStart = System.nanoTime();
+                            assertEquals(200, send(request).statusCode());
+                            latencies.add(System.nanoTime() - requestStart);
+                        }
+                        return null;
+                    });
+                }
+                clients.shutdown();
+                assertTrue(clients.awaitTermination(5, TimeUnit.MINUTES));
+            }
+            long elapsed = System.nanoTime() - start;
+
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return new Result(mode, maxInFlight.get(), sorted, elapsed);
+        }
+    }
+
+    /** One user per client, inserted in one batch; the password is never checked. */
+    private static long[] seedUsers(UserRepository repository, String mode) {
+        List<User> users = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            users.add(new User(null, "client" + i, "client" + i + "-" + mode + "@example.com", "unused"));
+        }
+        repository.batchInsert(users);
+        return repository.findAll().stream()
+                .filter(user -> user.getEmail().startsWith("client"))
+                .mapToLong(User::getId)
+                .toArray();
+    }
+
+    private HttpRequest post(int port, String path, String json) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** Wraps the repository so {@code findById} first waits like a slow query would. */
+    @Configuration(proxyBeanMethods = false)
+    static class SlowDatabaseConfig {
+
+        @Bean
+        static BeanPostProcessor slowFindById() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof UserRepository repository)) {
+                        return bean;
+                    }
+                    return Proxy.newProxyInstance(UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                            (proxy, method, args) -> {
+                                boolean slow = method.getName().equals("findById");
+                                if (slow) {
+                                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                                    Thread.sleep(DB_LATENCY);
+                                }
+                                try {
+                                    return method.invoke(repository, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                } finally {
+                                    if (slow) {
+                                        inFlight.decrementAndGet();
+                                    }
+                                }
+                            });
+                }
+            };
+        }
+    }
+
+    private record Result(String mode, int maxInFlight, List<Long> sortedNanos, long elapsedNanos) {
+
+        double throughput() {
+            return sortedNanos.size() * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        double percentile(double p) {
+            int index = (int) Math.ceil(p * sortedNanos.size()) - 1;
+            return sortedNanos.get(Math.max(index, 0)) / 1_000_000.0;
+        }
+    }
+}
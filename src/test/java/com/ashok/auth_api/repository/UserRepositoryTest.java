@@ -0,0 +1,135 @@
+package com.ashok.auth_api.repository;
+
+import com.ashok.auth_api.dto.UserResponseDTO;
+import com.ashok.auth_api.dto.ViewUserResponseDTO;
+import com.ashok.auth_api.model.User;
+import com.ashok.auth_api.utils.DuplicateKeys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the hand-written queries and the JDBC fragment against an embedded database. The main
+ * properties pin the MySQL dialect and {@code ddl-auto=update}, whose DDL H2 rejects.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void testBatchInsertAndKeysetPages() {
+        insertUsers(5);
+
+        List<UserResponseDTO> firstPage = userRepository.findPageAfter(0L, Limit.of(2));
+        assertEquals(2, firstPage.size());
+        List<UserResponseDTO> secondPage = userRepository.findPageAfter(firstPage.get(1).id(), Limit.of(10));
+        assertEquals(List.of("user2@example.com", "user3@example.com", "user4@example.com"),
+                secondPage.stream().map(UserResponseDTO::email).toList());
+        assertEquals(List.of("user1@example.com"),
+                userRepository.findExistingEmails(List.of("user1@example.com", "nobody@example.com")));
+        try (Stream<UserProjection> users = userRepository.streamAllBy()) {
+            assertEquals(5, users.count());
+        }
+    }
+
+    @Test
+    void testFindViewsByIdIn_SkipsMissingIds() {
+        insertUsers(2);
+        long id = userRepository.findPageAfter(0L, Limit.of(1)).get(0).id();
+
+        List<ViewUserResponseDTO> users = userRepository.findViewsByIdIn(List.of(id, -1L));
+        assertEquals(List.of(new ViewUserResponseDTO(id, "user0", "user0@example.com")), users);
+    }
+
+    @Test
+    void testSingleStatementMutations_ReportAffectedRows() {
+        long id = entityManager.persistAndFlush(new User(null, "john", "john@example.com", "hash")).getId();
+
+        assertEquals(1, userRepository.updateById(id, "johnny", "johnny@example.com", "hash2"));
+        assertEquals(0, userRepository.updateById(-1L, "nobody", "nobody@example.com", "hash"));
+        assertEquals(1, userRepository.patchById(id, null, "j@example.com", null));
+        assertEquals(0, userRepository.patchById(-1L, "nobody", null, null));
+        entityManager.clear();
+
+        User user = userRepository.findById(id).orElseThrow();
+        assertEquals("johnny", user.getUsername());
+        assertEquals("j@example.com", user.getEmail());
+        assertEquals("hash2", user.getPassword());
+
+        assertEquals(1, userRepository.deleteUserById(id));
+        assertEquals(0, userRepository.deleteUserById(id));
+    }
+
+    // The service answers 409 "Email already registered" exactly when DuplicateKeys says so.
+
+    @Test
+    void testInsertOfTakenEmail_IsADuplicateKey() {
+        insertUsers(1);
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(new User(null, "other", "user0@example.com", "hash")));
+        assertTrue(DuplicateKeys.isDuplicateKey(e));
+    }
+
+    @Test
+    void testBatchInsertOfTakenEmail_IsADuplicateKey() {
+        insertUsers(1);
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.batchInsert(List.of(new User(null, "other", "user0@example.com", "hash"))));
+        assertInstanceOf(DuplicateKeyException.class, e);
+    }
+
+    @Test
+    void testUpdateToTakenEmail_IsADuplicateKey() {
+        insertUsers(2);
+        long id = userRepository.findPageAfter(0L, Limit.of(1)).get(0).id();
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.updateById(id, "user0", "user1@example.com", "hash"));
+        assertTrue(DuplicateKeys.isDuplicateKey(e));
+    }
+
+    @Test
+    void testPatchToTakenEmail_IsADuplicateKey() {
+        insertUsers(2);
+        long id = userRepository.findPageAfter(0L, Limit.of(1)).get(0).id();
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.patchById(id, null, "user1@example.com", null));
+        assertTrue(DuplicateKeys.isDuplicateKey(e));
+    }
+
+    @Test
+    void testMissingRequiredColumn_IsNotADuplicateKey() {
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(new User(null, null, "john@example.com", "hash")));
+        assertFalse(DuplicateKeys.isDuplicateKey(e));
+    }
+
+    private void insertUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(new User(null, "user" + i, "user" + i + "@example.com", "hash"));
+        }
+        userRepository.batchInsert(users);
+    }
+}
@@ -0,0 +1,165 @@
+package com.ashok.auth_api.service;
+
+import com.ashok.auth_api.config.EmailFilterProperties;
+import com.ashok.auth_api.config.ImportProperties;
+import com.ashok.auth_api.config.PasswordHashingProperties;
+import com.ashok.auth_api.config.UserLookupProperties;
+import com.ashok.auth_api.model.User;
+import com.ashok.auth_api.repository.ImportCheckpointRepository;
+import com.ashok.auth_api.repository.UserRepository;
+import com.ashok.auth_api.security.JwtUtil;
+import com.ashok.auth_api.service.implementation.EmailExistenceFilter;
+import com.ashok.auth_api.service.implementation.ImportCheckpoints;
+import com.ashok.auth_api.service.implementation.PasswordHashingBulkhead;
+import com.ashok.auth_api.service.implementation.UserCache;
+import com.ashok.auth_api.service.implementation.UserServiceImpl;
+import com.ashok.auth_api.service.interfaces.ImportProgressListener;
+import com.ashok.auth_api.utils.ApiResponse;
+import com.ashok.auth_api.utils.HttpStatusCodes;
+import com.ashok.auth_api.utils.ResponseHandlerImpl;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Run by the {@code heapTest} Gradle task with a deliberately small heap. The workbook is
+ * laid out the way Excel saves one: every text cell refers to the shared-strings table, here
+ * 1.5 million distinct strings. Holding that table as strings, or loading the file into an
+ * {@code XSSFWorkbook}, needs several hundred MB.
+ */
+@Tag("heap")
+class ExcelImportHeapTest {
+
+    private static final int DATA_ROWS = 500_000;
+
+    @TempDir
+    Path tempDir;
+
+    private final ExecutorService importHashingExecutor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutDownImportHashing() {
+        importHashingExecutor.shutdownNow();
+    }
+
+    @Test
+    void testRegisterUsersFromExcel_LargeSharedStringsWorkbookWithSmallHeap() throws Exception {
+        Path file = tempDir.resolve("large.xlsx");
+        writeSharedStringsWorkbook(file, DATA_ROWS);
+
+        // stub-only mocks: recording 500k rows of invocations would fill the heap by itself
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        AtomicLong inserted = new AtomicLong();
+        AtomicReference<User> last = new AtomicReference<>();
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            inserted.addAndGet(users.size());
+            last.set(users.get(users.size() - 1));
+            return null;
+        }).when(userRepository).batchInsert(any());
+        BCryptPasswordEncoder passwordEncoder = mock(BCryptPasswordEncoder.class, withSettings().stubOnly());
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+
+        UserServiceImpl userService = new UserServiceImpl(userRepository, mock(JwtUtil.class),
+                passwordEncoder, new ResponseHandlerImpl(), new ImportProperties(),
+                new UserCache(new NoOpCacheManager(), Duration.ofSeconds(2)),
+                new EmailExistenceFilter(new EmailFilterProperties()),
+                new PasswordHashingBulkhead(new PasswordHashingProperties()),
+                new ImportCheckpoints(mock(ImportCheckpointRepository.class, withSettings().stubOnly()),
+                        TransactionOperations.withoutTransaction(), Duration.ofDays(7), Duration.ofMinutes(5)),
+                new UserLookupProperties(), importHashingExecutor);
+
+        ApiResponse<String> response = userService.registerUsersFromExcel(file, ImportProgressListener.NONE);
+
+        assertEquals(HttpStatusCodes.OK, response.getStatus(), response.getMessage());
+        assertEquals("Successfully registered: " + DATA_ROWS + ", Skipped: 0", response.getMessage());
+        assertEquals(DATA_ROWS, inserted.get());
+        assertEquals("user500000", last.get().getUsername());
+        assertEquals("user500000@example.com", last.get().getEmail());
+    }
+
+    /**
+     * Writes an .xlsx whose first sheet has a header and {@code dataRows} users, every value
+     * a shared string. The sheet and the table are streamed straight into the zip; the other
+     * parts come from a one-row workbook saved by POI.
+     */
+    private static void writeSharedStringsWorkbook(Path file, int dataRows) throws IOException {
+        ByteArrayOutputStream template = new ByteArrayOutputStream();
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            workbook.createSheet().createRow(0).createCell(0).setCellValue("username");
+            workbook.write(template);
+        }
+
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(template.toByteArray()));
+             ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(file))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                switch (entry.getName()) {
+                    case "xl/worksheets/sheet1.xml" -> writeSheet(out, dataRows);
+                    case "xl/sharedStrings.xml" -> writeSharedStrings(out, dataRows);
+                    default -> in.transferTo(out);
+                }
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static void writeSheet(OutputStream out, int dataRows) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+        for (int row = 0; row <= dataRows; row++) {
+            int r = row + 1;
+            writer.write("<row r=\"" + r + "\">");
+            for (int column = 0; column < 3; column++) {
+                writer.write("<c r=\"" + (char) ('A' + column) + r + "\" t=\"s\"><v>" + (row * 3 + column) + "</v></c>");
+            }
+            writer.write("</row>");
+        }
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+    }
+
+    private static void writeSharedStrings(OutputStream out, int dataRows) throws IOException {
+        int strings = (dataRows + 1) * 3;
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\""
+                + strings + "\" uniqueCount=\"" + strings + "\">");
+        writer.write("<si><t>username</t></si><si><t>email</t></si><si><t>password</t></si>");
+        for (int i = 1; i <= dataRows; i++) {
+            writer.write("<si><t>user" + i + "</t></si><si><t>user" + i + "@example.com</t></si><si><t>secret" + i + "</t></si>");
+        }
+        writer.write("</sst>");
+        writer.flush();
+    }
+}
@@ -0,0 +1,219 @@
+package com.ashok.auth_api.service;
+
+import com.ashok.auth_api.config.ImportProperties;
+import com.ashok.auth_api.dto.ImportJobStatusDTO;
+import com.ashok.auth_api.service.implementation.ImportJobServiceImpl;
+import com.ashok.auth_api.service.interfaces.ImportProgressListener;
+import com.ashok.auth_api.service.interfaces.UserService;
+import com.ashok.auth_api.utils.ApiResponse;
+import com.ashok.auth_api.utils.HttpStatusCodes;
+import com.ashok.auth_api.utils.ResponseHandlerImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class ImportJobServiceImplTest {
+
+    @TempDir
+    Path spoolDir;
+
+    private UserService userService;
+    private ImportProperties properties;
+    private ImportJobServiceImpl importJobService;
+
+    @BeforeEach
+    void setup() {
+        userService = Mockito.mock(UserService.class);
+        properties = new ImportProperties();
+        properties.getJobs().setSpoolDir(spoolDir);
+        importJobService = new ImportJobServiceImpl(userService, properties, new ResponseHandlerImpl(), new MockEnvironment());
+    }
+
+    @AfterEach
+    void tearDown() {
+        importJobService.shutdown();
+    }
+
+    @Test
+    void testSubmitImport_RunsInBackgroundAndReportsProgress() throws Exception {
+        when(userService.registerUsersFromCSV(any(Path.class), any(ImportProgressListener.class))).thenAnswer(invocation -> {
+            Path file = invocation.getArgument(0);
+            assertTrue(Files.exists(file));
+            ImportProgressListener listener = invocation.getArgument(1);
+            listener.rowParsed();
+            listener.rowParsed();
+            listener.rowsInserted(1);
+            listener.rowsSkipped(1);
+            return new ApiResponse<>(HttpStatusCodes.OK, "Successfully registered: 1, Skipped: 1", null);
+        });
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv",
+                "username,email,password\njohn,john@example.com,1\njohn,john@example.com,1".getBytes(StandardCharsets.UTF_8));
+
+        ApiResponse<ImportJobStatusDTO> accepted = importJobService.submitImport(file);
+        assertEquals(HttpStatusCodes.ACCEPTED, accepted.getStatus());
+        String jobId = accepted.getData().id();
+
+        ImportJobStatusDTO status = awaitFinished(jobId);
+        assertEquals("COMPLETED", status.status());
+        assertEquals(2, status.rowsParsed());
+        assertEquals(1, status.rowsInserted());
+        assertEquals(1, status.rowsSkipped());
+        assertEquals("Successfully registered: 1, Skipped: 1", status.message());
+        try (var spooled = Files.list(spoolDir)) {
+            assertEquals(0, spooled.count());
+        }
+    }
+
+    @Test
+    void testSubmitImport_FailedImportIsReported() throws Exception {
+        when(userService.registerUsersFromExcel(any(Path.class), any(ImportProgressListener.class)))
+                .thenThrow(new IllegalStateException("database down"));
+        MockMultipartFile file = new MockMultipartFile("file", "users.xlsx", "application/octet-stream", new byte[]{1});
+
+        String jobId = importJobService.submitImport(file).getData().id();
+
+        ImportJobStatusDTO status = awaitFinished(jobId);
+        assertEquals("FAILED", status.status());
+        assertEquals("Import failed: database down", status.message());
+    }
+
+    @Test
+    void testSubmitImport_ExcelJobEstimatesRemainingTimeFromSheetProgress() throws Exception {
+        CountDownLatch reported = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userService.registerUsersFromExcel(any(Path.class), any(ImportProgressListener.class))).thenAnswer(invocation -> {
+            ImportProgressListener listener = invocation.getArgument(1);
+            // the sheet is not the upload, so its size is reported along with the bytes read
+            listener.bytesRead(250, 1000);
+            reported.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return new ApiResponse<>(HttpStatusCodes.OK, "Successfully registered: 0, Skipped: 0", null);
+        });
+        MockMultipartFile file = new MockMultipartFile("file", "users.xlsx", "application/octet-stream", new byte[]{1});
+
+        String jobId = importJobService.submitImport(file).getData().id();
+        assertTrue(reported.await(5, TimeUnit.SECONDS));
+        ImportJobStatusDTO running = importJobService.getImportJob(jobId).getData();
+        release.countDown();
+
+        assertEquals("RUNNING", running.status());
+        assertNotNull(running.etaSeconds());
+        assertEquals(0L, awaitFinished(jobId).etaSeconds());
+    }
+
+    @Test
+    void testSubmitImport_ZippedCsvIsSpooledCompressed() throws Exception {
+        ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(zipped)) {
+            zip.putNextEntry(new ZipEntry("users.csv"));
+            zip.write("username,email,password\njohn,john@example.com,1".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        when(userService.registerUsersFromCSV(any(Path.class), any(ImportProgressListener.class))).thenAnswer(invocation -> {
+            Path file = invocation.getArgument(0);
+            assertTrue(file.getFileName().toString().endsWith(".csv.zip"));
+            assertEquals(zipped.size(), Files.size(file));
+            return new ApiResponse<>(HttpStatusCodes.OK, "Successfully registered: 1, Skipped: 0", null);
+        });
+        MockMultipartFile file = new MockMultipartFile("file", "users.zip", "application/zip", zipped.toByteArray());
+
+        String jobId = importJobService.submitImport(file).getData().id();
+
+        assertEquals("COMPLETED", awaitFinished(jobId).status());
+    }
+
+    @Test
+    void testSubmitImport_ZipWithoutImportableFile() throws Exception {
+        ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(zipped)) {
+            zip.putNextEntry(new ZipEntry("notes.txt"));
+            zip.closeEntry();
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "users.zip", "application/zip", zipped.toByteArray());
+
+        ApiResponse<ImportJobStatusDTO> response = importJobService.submitImport(file);
+        assertEquals(HttpStatusCodes.BAD_REQUEST, response.getStatus());
+        try (var spooled = Files.list(spoolDir)) {
+            assertEquals(0, spooled.count());
+        }
+    }
+
+    @Test
+    void testSubmitImport_UnsupportedFileType() {
+        MockMultipartFile file = new MockMultipartFile("file", "users.txt", "text/plain", new byte[]{1});
+
+        ApiResponse<ImportJobStatusDTO> response = importJobService.submitImport(file);
+        assertEquals(HttpStatusCodes.BAD_REQUEST, response.getStatus());
+    }
+
+    @Test
+    void testSubmitImport_QueuesUpToCapacityThenRejects() throws Exception {
+        importJobService.shutdown();
+        properties.getJobs().setMaxConcurrent(1);
+        properties.getJobs().setQueueCapacity(1);
+        importJobService = new ImportJobServiceImpl(userService, properties, new ResponseHandlerImpl(), new MockEnvironment());
+        CountDownLatch release = new CountDownLatch(1);
+        when(userService.registerUsersFromCSV(any(Path.class), any(ImportProgressListener.class))).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return new ApiResponse<>(HttpStatusCodes.OK, "Successfully registered: 0, Skipped: 0", null);
+        });
+
+        String first = importJobService.submitImport(csv()).getData().id();
+        awaitStatus(first, "RUNNING");
+        String second = importJobService.submitImport(csv()).getData().id();
+        assertEquals(HttpStatusCodes.SERVICE_UNAVAILABLE, importJobService.submitImport(csv()).getStatus());
+        assertEquals("QUEUED", importJobService.getImportJob(second).getData().status());
+
+        release.countDown();
+        assertEquals("COMPLETED", awaitFinished(first).status());
+        assertEquals("COMPLETED", awaitFinished(second).status());
+        // both permits are back
+        assertEquals(HttpStatusCodes.ACCEPTED, importJobService.submitImport(csv()).getStatus());
+    }
+
+    @Test
+    void testGetImportJob_NotFound() {
+        assertEquals(HttpStatusCodes.NOT_FOUND, importJobService.getImportJob("missing").getStatus());
+    }
+
+    private static MockMultipartFile csv() {
+        return new MockMultipartFile("file", "users.csv", "text/csv",
+                "username,email,password\njohn,john@example.com,1".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void awaitStatus(String jobId, String expected) throws InterruptedException {
+        for (int i = 0; i < 100 && !importJobService.getImportJob(jobId).getData().status().equals(expected); i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, importJobService.getImportJob(jobId).getData().status());
+    }
+
+    private ImportJobStatusDTO awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ImportJobStatusDTO status = importJobService.getImportJob(jobId).getData();
+            if (status.status().equals("COMPLETED") || status.status().equals("FAILED")) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        fail("Import job did not finish");
+        return null;
+    }
+}
@@ -0,0 +1,129 @@
+package com.ashok.auth_api.service;
+
+import com.ashok.auth_api.config.PasswordHashingProperties;
+import com.ashok.auth_api.exceptions.ServiceBusyException;
+import com.ashok.auth_api.service.implementation.PasswordHashingBulkhead;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingBulkheadTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testExecute_ReturnsResultWhenPermitFree() {
+        PasswordHashingBulkhead bulkhead = new PasswordHashingBulkhead(properties(1, 0, Duration.ofMillis(10)));
+        assertEquals("hashed", bulkhead.execute(() -> "hashed"));
+        assertEquals("again", bulkhead.execute(() -> "again"));
+    }
+
+    @Test
+    void testExecute_RejectsImmediatelyWhenQueueFull() throws Exception {
+        PasswordHashingBulkhead bulkhead = new PasswordHashingBulkhead(properties(1, 0, Duration.ofSeconds(5)));
+        occupyPermit(bulkhead);
+
+        long start = System.nanoTime();
+        ServiceBusyException ex = assertThrows(ServiceBusyException.class, () -> bulkhead.execute(() -> "x"));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, ex.getRetryAfterSeconds());
+    }
+
+    @Test
+    void testExecute_RejectsAfterWaitTimeout() throws Exception {
+        PasswordHashingBulkhead bulkhead = new PasswordHashingBulkhead(properties(1, 1, Duration.ofMillis(50)));
+        occupyPermit(bulkhead);
+
+        assertThrows(ServiceBusyException.class, () -> bulkhead.execute(() -> "x"));
+        assertEquals(0, bulkhead.getWaiting());
+    }
+
+    @Test
+    void testExecute_WaiterRunsOncePermitIsReleased() throws Exception {
+        PasswordHashingBulkhead bulkhead = new PasswordHashingBulkhead(properties(1, 1, Duration.ofSeconds(5)));
+        occupyPermit(bulkhead);
+
+        Future<String> waiter = executor.submit(() -> bulkhead.execute(() -> "done"));
+        while (bulkhead.getWaiting() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        assertEquals("done", waiter.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSubmit_RunsOnHashingThreadWithoutBlockingCaller() throws Exception {
+        PasswordHashingBulkhead bulkhead = new PasswordHashingBulkhead(properties(1, 1, Duration.ofSeconds(5)));
+        occupyPermit(bulkhead);
+
+        CompletableFuture<String> hashed = bulkhead.submit(() -> Thread.currentThread().getName());
+        assertFalse(hashed.isDone());
+        assertEquals(1, bulkhead.getWaiting());
+
+        release.countDown();
+        assertTrue(hashed.get(5, TimeUnit.SECONDS).startsWith("password-hash-"));
+        bulkhead.shutdown();
+    }
+
+    @Test
+    void testSubmit_RejectsImmediatelyWhenQueueFull() throws Exception {
+        PasswordHashingBulkhead bulkhead = new PasswordHashingBulkhead(properties(1, 0, Duration.ofSeconds(5)));
+        occupyPermit(bulkhead);
+
+        assertThrows(ServiceBusyException.class, () -> bulkhead.submit(() -> "x"));
+        bulkhead.shutdown();
+    }
+
+    @Test
+    void testSubmit_CompletesWithBusyAfterWaitTimeout() throws Exception {
+        PasswordHashingBulkhead bulkhead = new PasswordHashingBulkhead(properties(1, 1, Duration.ofMillis(50)));
+        occupyPermit(bulkhead);
+
+        CompletableFuture<String> hashed = bulkhead.submit(() -> "x");
+        Thread.sleep(100);
+        release.countDown();
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> hashed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ServiceBusyException.class, ex.getCause());
+        bulkhead.shutdown();
+    }
+
+    private void occupyPermit(PasswordHashingBulkhead bulkhead) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.submit(() -> bulkhead.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    private static PasswordHashingProperties properties(int maxConcurrent, int maxWaiting, Duration maxWait) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setMaxConcurrent(maxConcurrent);
+        properties.setMaxWaiting(maxWaiting);
+        properties.setMaxWait(maxWait);
+        return properties;
+    }
+}
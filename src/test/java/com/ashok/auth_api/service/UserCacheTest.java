@@ -0,0 +1,173 @@
+package com.ashok.auth_api.service;
+
+import com.ashok.auth_api.exceptions.ServiceBusyException;
+import com.ashok.auth_api.model.User;
+import com.ashok.auth_api.service.implementation.UserCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCacheTest {
+
+    private UserCache userCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setup() {
+        userCache = newCache(Duration.ofSeconds(10));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testFindById_LoadsOnceThenHitsCache() {
+        assertEquals("john", userCache.findById(1L, this::loadJohn).orElseThrow().getUsername());
+        assertEquals("john", userCache.findById(1L, this::loadJohn).orElseThrow().getUsername());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testFindByEmail_IgnoresCaseAndSharesEntryWithId() {
+        userCache.findByEmail("john@example.com", email -> loadJohn(1L));
+
+        assertTrue(userCache.findByEmail("JOHN@example.com", email -> loadJohn(1L)).isPresent());
+        assertTrue(userCache.findById(1L, this::loadJohn).isPresent());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testEvict_DropsBothEntries() {
+        userCache.findById(1L, this::loadJohn);
+        userCache.evict(1L, "john@example.com");
+
+        userCache.findByEmail("john@example.com", email -> loadJohn(1L));
+        assertEquals(2, loads.get());
+        userCache.findById(1L, this::loadJohn);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testCachedUserIsNotSharedWithCallers() {
+        userCache.findById(1L, this::loadJohn).orElseThrow().setUsername("changed");
+
+        assertEquals("john", userCache.findById(1L, this::loadJohn).orElseThrow().getUsername());
+    }
+
+    @Test
+    void testMissesAreNotCached() {
+        assertTrue(userCache.findById(2L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }).isEmpty());
+
+        assertTrue(userCache.findById(2L, this::loadJohn).isPresent());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testConcurrentMissesShareOneQuery() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        userCache.bindTo(registry);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Optional<User>> first = CompletableFuture.supplyAsync(() ->
+                userCache.findByEmail("john@example.com", email -> {
+                    loading.countDown();
+                    await(release);
+                    return loadJohn(1L);
+                }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Optional<User>> second = CompletableFuture.supplyAsync(() ->
+                userCache.findByEmail("JOHN@example.com", email -> loadJohn(1L)));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("user.lookup.collapsed").tag("lookup", "email").functionCounter().count() < 1
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        User firstUser = first.get(5, TimeUnit.SECONDS).orElseThrow();
+        User secondUser = second.get(5, TimeUnit.SECONDS).orElseThrow();
+        assertEquals("john", secondUser.getUsername());
+        assertNotSame(firstUser, secondUser);
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.get("user.lookup.queries").tag("lookup", "email").functionCounter().count());
+        assertEquals(1, registry.get("user.lookup.collapsed").tag("lookup", "email").functionCounter().count());
+    }
+
+    @Test
+    void testLookupWaitingTooLongForASharedQueryIsBusy() throws Exception {
+        userCache = newCache(Duration.ofMillis(50));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture.runAsync(() -> userCache.findById(1L, id -> {
+                loading.countDown();
+                await(release);
+                return loadJohn(id);
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            ServiceBusyException e = assertThrows(ServiceBusyException.class, () -> userCache.findById(1L, this::loadJohn));
+            assertEquals(1, e.getRetryAfterSeconds());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testLoadOverlappingAnEditDoesNotCacheTheOldRow() throws Exception {
+        CountDownLatch readOldRow = new CountDownLatch(1);
+        CountDownLatch edited = new CountDownLatch(1);
+
+        // reads the row, then the edit commits and evicts before the load returns
+        CompletableFuture<Optional<User>> staleLoad = CompletableFuture.supplyAsync(() ->
+                userCache.findByEmail("john@example.com", email -> {
+                    Optional<User> oldRow = loadJohn(1L);
+                    readOldRow.countDown();
+                    await(edited);
+                    return oldRow;
+                }));
+        assertTrue(readOldRow.await(5, TimeUnit.SECONDS));
+        userCache.evict(1L, "john@example.com");
+        edited.countDown();
+        assertEquals("hashed", staleLoad.get(5, TimeUnit.SECONDS).orElseThrow().getPassword());
+
+        User current = userCache.findById(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(new User(id, "john", "john@example.com", "new-hash"));
+        }).orElseThrow();
+        assertEquals("new-hash", current.getPassword());
+        assertEquals("new-hash", userCache.findByEmail("john@example.com", email -> loadJohn(1L))
+                .orElseThrow().getPassword());
+        assertEquals(2, loads.get());
+    }
+
+    private static UserCache newCache(Duration singleFlightMaxWait) {
+        return new UserCache(new ConcurrentMapCacheManager(UserCache.USERS_BY_ID, UserCache.USERS_BY_EMAIL),
+                singleFlightMaxWait);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Optional<User> loadJohn(Long id) {
+        loads.incrementAndGet();
+        return Optional.of(new User(id, "john", "john@example.com", "hashed"));
+    }
+}
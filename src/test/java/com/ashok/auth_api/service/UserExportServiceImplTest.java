@@ -0,0 +1,157 @@
+package com.ashok.auth_api.service;
+
+import com.ashok.auth_api.exceptions.ExportTooLargeException;
+import com.ashok.auth_api.repository.UserProjection;
+import com.ashok.auth_api.repository.UserRepository;
+import com.ashok.auth_api.service.implementation.UserExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private UserExportServiceImpl userExportService;
+
+    @Test
+    void testStreamUsersAsNdjson_WritesOneObjectPerLineAndClosesStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.streamAllBy()).thenReturn(Stream.of(
+                        projection(1L, "john", "john@example.com"),
+                        projection(2L, "jane", "jane@example.com"))
+                .onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userExportService.streamUsersAsNdjson(out);
+
+        assertEquals("{\"id\":1,\"username\":\"john\",\"email\":\"john@example.com\"}\n"
+                        + "{\"id\":2,\"username\":\"jane\",\"email\":\"jane@example.com\"}\n",
+                out.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void testStreamUsersAsNdjson_EmptyTable() throws Exception {
+        when(userRepository.streamAllBy()).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userExportService.streamUsersAsNdjson(out);
+
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void testExportUsersAsExcel_WritesHeaderAndRows() throws Exception {
+        when(userRepository.streamAllBy()).thenReturn(Stream.of(
+                projection(1L, "john", "john@example.com"),
+                projection(2L, "jane", "jane@example.com")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userExportService.exportUsersAsExcel(out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals(2, sheet.getLastRowNum());
+            assertEquals("email", sheet.getRow(0).getCell(2).getStringCellValue());
+            assertEquals(2, (long) sheet.getRow(2).getCell(0).getNumericCellValue());
+            assertEquals("jane@example.com", sheet.getRow(2).getCell(2).getStringCellValue());
+        }
+    }
+
+    @Test
+    void testExportUsersAsExcel_RejectsMoreUsersThanOneSheetHolds() {
+        when(userRepository.count()).thenReturn(1_048_576L);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportTooLargeException ex = assertThrows(ExportTooLargeException.class,
+                () -> userExportService.exportUsersAsExcel(out));
+
+        assertTrue(ex.getMessage().contains("format=csv"), ex.getMessage());
+        assertEquals(0, out.size());
+        verify(userRepository, never()).streamAllBy();
+    }
+
+    @Test
+    void testExportUsersAsExcel_OneSheetFull() {
+        // a full sheet: the header plus 1,048,575 users
+        when(userRepository.count()).thenReturn(1_048_575L);
+        when(userRepository.streamAllBy()).thenReturn(Stream.empty());
+
+        assertDoesNotThrow(() -> userExportService.exportUsersAsExcel(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void testExportUsersAsCsv_QuotesFieldsWhenNeeded() throws Exception {
+        when(userRepository.streamAllBy()).thenReturn(Stream.of(
+                projection(1L, "john", "john@example.com"),
+                projection(2L, "Doe, \"JD\"", "jd@example.com")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userExportService.exportUsersAsCsv(out);
+
+        assertEquals("id,username,email\r\n"
+                        + "1,john,john@example.com\r\n"
+                        + "2,\"Doe, \"\"JD\"\"\",jd@example.com\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testExportUsersAsCsv_EscapesFormulas() throws Exception {
+        when(userRepository.streamAllBy()).thenReturn(Stream.of(
+                projection(1L, "=HYPERLINK(\"http://evil\")", "@sum@example.com"),
+                projection(2L, "+1", "-2,3@example.com"),
+                projection(3L, "jo=hn", "john@example.com")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userExportService.exportUsersAsCsv(out);
+
+        assertEquals("id,username,email\r\n"
+                        + "1,\"'=HYPERLINK(\"\"http://evil\"\")\",'@sum@example.com\r\n"
+                        + "2,'+1,\"'-2,3@example.com\"\r\n"
+                        + "3,jo=hn,john@example.com\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static UserProjection projection(Long id, String username, String email) {
+        return new UserProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
@@ -1,38 +1,77 @@
 package com.ashok.auth_api.service;
 
+import com.ashok.auth_api.config.EmailFilterProperties;
+import com.ashok.auth_api.config.ImportProperties;
+import com.ashok.auth_api.config.PasswordHashingProperties;
+import com.ashok.auth_api.config.UserLookupProperties;
 import com.ashok.auth_api.dto.*;
 import com.ashok.auth_api.exceptions.GlobalExceptionHandler;
+import com.ashok.auth_api.exceptions.ImportInProgressException;
 import com.ashok.auth_api.exceptions.InvalidSignupDataException;
+import com.ashok.auth_api.exceptions.ServiceBusyException;
 import com.ashok.auth_api.exceptions.UserAlreadyExistsException;
+import com.ashok.auth_api.model.ImportCheckpoint;
 import com.ashok.auth_api.model.User;
+import com.ashok.auth_api.repository.ImportCheckpointRepository;
 import com.ashok.auth_api.repository.UserRepository;
+import com.ashok.auth_api.security.JwtAuthenticationToken;
 import com.ashok.auth_api.security.JwtUtil;
+import com.ashok.auth_api.service.implementation.EmailExistenceFilter;
+import com.ashok.auth_api.service.implementation.ImportCheckpoints;
+import com.ashok.auth_api.service.implementation.PasswordHashingBulkhead;
+import com.ashok.auth_api.service.implementation.UserCache;
 import com.ashok.auth_api.service.implementation.UserServiceImpl;
+import com.ashok.auth_api.service.interfaces.ImportProgressListener;
 import com.ashok.auth_api.utils.ApiResponse;
 import com.ashok.auth_api.utils.HttpStatusCodes;
 import com.ashok.auth_api.utils.ResponseHandler;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.unit.DataSize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,15 +89,49 @@ class UserServiceImplTest {
     @Mock
     private ResponseHandler responseHandler;
 
-    @InjectMocks
+    @Spy
+    private ImportProperties importProperties = new ImportProperties();
+
+    @Spy
+    private UserCache userCache = new UserCache(new NoOpCacheManager(), Duration.ofSeconds(2));
+
+    @Spy
+    private EmailExistenceFilter emailFilter = new EmailExistenceFilter(new EmailFilterProperties());
+
+    @Spy
+    private PasswordHashingBulkhead passwordHashing = new PasswordHashingBulkhead(new PasswordHashingProperties());
+
+    private final ImportCheckpointRepository checkpointRepository = mock(ImportCheckpointRepository.class);
+
+    @Spy
+    private ImportCheckpoints importCheckpoints = new ImportCheckpoints(
+            checkpointRepository, TransactionOperations.withoutTransaction(), Duration.ofDays(7), Duration.ofMinutes(5));
+
+    @Spy
+    private UserLookupProperties lookupProperties = new UserLookupProperties();
+
+    private final ExecutorService importHashingExecutor = Executors.newFixedThreadPool(2);
+
     private UserServiceImpl userService;
 
+    @BeforeEach
+    void setUpUserService() {
+        // built by hand: @InjectMocks would pass null for the executor, which is not a mock
+        userService = new UserServiceImpl(userRepository, jwtUtil, passwordEncoder, responseHandler,
+                importProperties, userCache, emailFilter, passwordHashing, importCheckpoints, lookupProperties,
+                importHashingExecutor);
+    }
+
+    @AfterEach
+    void shutDownImportHashing() {
+        importHashingExecutor.shutdownNow();
+    }
+
     @Test
     void testRegisterSuccess() {
         // Arrange
         SignupRequestDTO requestDTO = new SignupRequestDTO("john", "john@example.com", "password");
 
-        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.empty());
         when(passwordEncoder.encode("password")).thenReturn("hashedPass");
 
         User savedUser = new User();
@@ -84,13 +157,53 @@ class UserServiceImplTest {
         assertEquals(201, actualResponse.getStatus());
         assertEquals("john", actualResponse.getData().username());
         assertEquals("john@example.com", actualResponse.getData().email());
+        verify(userRepository, never()).findByEmail(anyString());
     }
 
     @Test
-    void testRegisterThrowsUserAlreadyExistsException() {
+    void testRegister_DuplicateKeyMeansEmailTaken() {
+        SignupRequestDTO dto = new SignupRequestDTO("john", "john@example.com", "password");
+        when(passwordEncoder.encode("password")).thenReturn("hashedPass");
+        // the key name is whatever the database calls it; only the SQL state is looked at
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Duplicate entry 'john@example.com' for key 'users.UK6dotkott2kjsp8vw4d0m25fb7'", "23000", 1062)));
+
+        UserAlreadyExistsException e = assertThrows(UserAlreadyExistsException.class, () -> userService.register(dto));
+        assertEquals("Email already registered", e.getMessage());
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+    @Test
+    void testRegister_OtherViolationIsRethrown() {
         SignupRequestDTO dto = new SignupRequestDTO("john", "john@example.com", "password");
-        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(new User()));
-        assertThrows(UserAlreadyExistsException.class, () -> userService.register(dto));
+        when(passwordEncoder.encode("password")).thenReturn("hashedPass");
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("NULL not allowed for column \"USER_NAME\"", "23502", 23502));
+        when(userRepository.save(any(User.class))).thenThrow(notNull);
+
+        assertSame(notNull, assertThrows(DataIntegrityViolationException.class, () -> userService.register(dto)));
+    }
+    @Test
+    void testEmailFilterRebuild_KeepsAddsMadeBeforeTheTableIsRead() {
+        // a signup committing after the rebuild started but before the stream was opened
+        emailFilter.rebuild(1, () -> {
+            emailFilter.add("late@example.com");
+            return Stream.of("existing@example.com");
+        });
+
+        assertTrue(emailFilter.mightExist("late@example.com"));
+        assertTrue(emailFilter.mightExist("existing@example.com"));
+    }
+    @Test
+    void testRegister_AddsEmailToFilter() {
+        emailFilter.rebuild(1, () -> Stream.of("existing@example.com"));
+        SignupRequestDTO dto = new SignupRequestDTO("john", "john@example.com", "password");
+        when(passwordEncoder.encode("password")).thenReturn("hashedPass");
+        when(userRepository.save(any(User.class))).thenReturn(new User(1L, "john", "john@example.com", "hashedPass"));
+        when(responseHandler.success(any(SignupResponseDTO.class), eq("user registered successfully"), eq(201)))
+                .thenAnswer(invocation -> new ApiResponse<>(201, invocation.getArgument(1), invocation.getArgument(0)));
+
+        assertEquals(201, userService.register(dto).getStatus());
+        assertTrue(emailFilter.mightExist("JOHN@example.com"));
     }
     @Test
     void testRegisterThrowsInvalidSignupDataException() {
@@ -118,7 +231,7 @@ class UserServiceImplTest {
         when(responseHandler.success(any(LoginResponseDTO.class), eq("Login successful"), eq(200))).thenReturn(expectedResponse);
 
         // Act
-        ApiResponse<LoginResponseDTO> actualResponse = userService.login(dto);
+        ApiResponse<LoginResponseDTO> actualResponse = userService.login(dto).join();
 
         // Assert
         assertNotNull(actualResponse);
@@ -134,7 +247,7 @@ class UserServiceImplTest {
         when(responseHandler.error("Invalid email or password", HttpStatusCodes.UNAUTHORIZED))
                 .thenReturn(new ApiResponse<>(HttpStatusCodes.UNAUTHORIZED, "Invalid email or password", null));
 
-        ApiResponse<LoginResponseDTO> response = userService.login(dto);
+        ApiResponse<LoginResponseDTO> response = userService.login(dto).join();
         assertEquals(HttpStatusCodes.UNAUTHORIZED, response.getStatus());
     }
 
@@ -158,9 +271,7 @@ class UserServiceImplTest {
 
         MockMultipartFile file = new MockMultipartFile("file", "users.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", bos.toByteArray());
 
-        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.empty());
         when(passwordEncoder.encode("123456")).thenReturn("encodedPass");
-        when(userRepository.save(any(User.class))).thenReturn(new User());
 
         when(responseHandler.success(eq(null), eq("Successfully registered: 1, Skipped: 0"), eq(HttpStatusCodes.OK)))
                 .thenAnswer(invocation -> new ApiResponse<>(HttpStatusCodes.OK, invocation.getArgument(1), null));
@@ -168,15 +279,15 @@ class UserServiceImplTest {
         ApiResponse<String> response = userService.registerUsersFromExcel(file);
         assertEquals(HttpStatusCodes.OK, response.getStatus());
         assertEquals("Successfully registered: 1, Skipped: 0", response.getMessage());
+        verify(userRepository).batchInsert(argThat(users -> users.size() == 1));
+        verify(userRepository, never()).save(any(User.class));
     }
     @Test
     void testRegisterUsersFromCSV_Success() throws IOException {
         String csv = "username,email,password\njohn,john@example.com,123456";
         MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
 
-        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.empty());
         when(passwordEncoder.encode("123456")).thenReturn("encodedPass");
-        when(userRepository.save(any(User.class))).thenReturn(new User());
 
         when(responseHandler.success(eq(null), eq("Successfully registered: 1, Skipped: 0"), eq(HttpStatusCodes.OK)))
                 .thenAnswer(invocation -> new ApiResponse<>(HttpStatusCodes.OK, invocation.getArgument(1), null));
@@ -184,40 +295,362 @@ class UserServiceImplTest {
         ApiResponse<String> response = userService.registerUsersFromCSV(file);
         assertEquals(HttpStatusCodes.OK, response.getStatus());
         assertEquals("Successfully registered: 1, Skipped: 0", response.getMessage());
+        verify(userRepository).batchInsert(argThat(users -> users.size() == 1
+                && users.get(0).getPassword().equals("encodedPass")));
+    }
+    @Test
+    void testRegisterUsersFromCSV_WritesInBatchesAndSkipsDuplicatesWithinFile() throws IOException {
+        importProperties.setBatchSize(2);
+        String csv = "username,email,password\n"
+                + "a,a@example.com,1\n"
+                + "b,b@example.com,2\n"
+                + "c,c@example.com,3\n"
+                + "c2,c@example.com,4";
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPass");
+        when(responseHandler.success(eq(null), eq("Successfully registered: 3, Skipped: 1"), eq(HttpStatusCodes.OK)))
+                .thenAnswer(invocation -> new ApiResponse<>(HttpStatusCodes.OK, invocation.getArgument(1), null));
+
+        ApiResponse<String> response = userService.registerUsersFromCSV(file);
+        assertEquals("Successfully registered: 3, Skipped: 1", response.getMessage());
+        verify(userRepository, times(2)).batchInsert(anyList());
+        verify(userRepository, times(2)).findExistingEmails(anyList());
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+    @Test
+    void testRegisterUsersFromCSV_DuplicateOfAWrittenRowIsFoundInDatabase() throws Exception {
+        importProperties.setBatchSize(1);
+        Path file = Files.createTempFile("users-", ".csv");
+        Files.writeString(file, "username,email,password\n"
+                + "a,a@example.com,1\n"
+                + "b,b@example.com,2\n"
+                + "a2,A@example.com,3\n");
+
+        // a table that the dedup query reads back from
+        Set<String> table = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> table.add(user.getEmail().toLowerCase(Locale.ROOT)));
+            return null;
+        }).when(userRepository).batchInsert(anyList());
+        when(userRepository.findExistingEmails(anyList())).thenAnswer(invocation -> {
+            List<String> emails = invocation.getArgument(0);
+            return emails.stream().filter(email -> table.contains(email.toLowerCase(Locale.ROOT))).toList();
+        });
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPass");
+        when(responseHandler.success(eq(null), anyString(), eq(HttpStatusCodes.OK)))
+                .thenAnswer(invocation -> new ApiResponse<>(HttpStatusCodes.OK, invocation.getArgument(1), null));
+
+        // the third row is parsed only once both earlier rows have been written
+        CountDownLatch written = new CountDownLatch(2);
+        AtomicInteger parsed = new AtomicInteger();
+        ImportProgressListener listener = new ImportProgressListener() {
+            @Override
+            public void rowParsed() {
+                if (parsed.incrementAndGet() == 3) {
+                    try {
+                        assertTrue(written.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+
+            @Override
+            public void rowsInserted(int count) {
+                for (int i = 0; i < count; i++) {
+                    written.countDown();
+                }
+            }
+        };
+        try {
+            ApiResponse<String> response = userService.registerUsersFromCSV(file, listener);
+            assertEquals("Successfully registered: 2, Skipped: 1", response.getMessage());
+            assertEquals(Set.of("a@example.com", "b@example.com"), table);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    @Test
+    void testRegisterUsersFromCSV_SkipsEmailsAlreadyInDatabaseIgnoringCase() throws IOException {
+        String csv = "username,email,password\n"
+                + "a,A@example.com,1\n"
+                + "b,b@example.com,2";
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        when(userRepository.findExistingEmails(List.of("A@example.com", "b@example.com"))).thenReturn(List.of("a@example.com"));
+        when(passwordEncoder.encode("2")).thenReturn("encodedPass");
+        when(responseHandler.success(eq(null), eq("Successfully registered: 1, Skipped: 1"), eq(HttpStatusCodes.OK)))
+                .thenAnswer(invocation -> new ApiResponse<>(HttpStatusCodes.OK, invocation.getArgument(1), null));
+
+        ApiResponse<String> response = userService.registerUsersFromCSV(file);
+        assertEquals("Successfully registered: 1, Skipped: 1", response.getMessage());
+        verify(userRepository).batchInsert(argThat(users -> users.size() == 1
+                && users.get(0).getEmail().equals("b@example.com")));
+    }
+    @Test
+    void testRegisterUsersFromCSV_FilterRulesOutChunkSkipsQuery() throws IOException {
+        emailFilter.rebuild(0, Stream::empty);
+        String csv = "username,email,password\na,a@example.com,1\nb,b@example.com,2";
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPass");
+        when(responseHandler.success(eq(null), eq("Successfully registered: 2, Skipped: 0"), eq(HttpStatusCodes.OK)))
+                .thenAnswer(invocation -> new ApiResponse<>(HttpStatusCodes.OK, invocation.getArgument(1), null));
+
+        userService.registerUsersFromCSV(file);
+        verify(userRepository, never()).findExistingEmails(anyList());
+        assertTrue(emailFilter.mightExist("b@example.com"));
+    }
+    @Test
+    void testRegisterUsersFromCSV_QuotedFieldsAndReorderedHeader() throws IOException {
+        String csv = "email,password,username\n\"doe@example.com\",\"p,w\",\"Doe, John\"";
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        when(passwordEncoder.encode("p,w")).thenReturn("encodedPass");
+        when(responseHandler.success(eq(null), eq("Successfully registered: 1, Skipped: 0"), eq(HttpStatusCodes.OK)))
+                .thenAnswer(invocation -> new ApiResponse<>(HttpStatusCodes.OK, invocation.getArgument(1), null));
+
+        userService.registerUsersFromCSV(file);
+        verify(userRepository).batchInsert(argThat(users -> users.size() == 1
+                && users.get(0).getUsername().equals("Doe, John")
+                && users.get(0).getEmail().equals("doe@example.com")));
+    }
+    @Test
+    void testRegisterUsersFromCSV_MissingColumnIsBadRequest() {
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv",
+                "name,email,password\njohn,john@example.com,1".getBytes(StandardCharsets.UTF_8));
+        when(responseHandler.error("Missing column 'username' in CSV header", HttpStatusCodes.BAD_REQUEST))
+                .thenReturn(new ApiResponse<>(HttpStatusCodes.BAD_REQUEST, "Missing column 'username' in CSV header", null));
+
+        ApiResponse<String> response = userService.registerUsersFromCSV(file);
+        assertEquals(HttpStatusCodes.BAD_REQUEST, response.getStatus());
+        verify(userRepository, never()).batchInsert(anyList());
+    }
+    @Test
+    void testRegisterUsersFromCSV_GzipUpload() throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write("username,email,password\njohn,john@example.com,123456".getBytes(StandardCharsets.UTF_8));
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv.gz", "application/gzip", gzipped.toByteArray());
+
+        when(passwordEncoder.encode("123456")).thenReturn("encodedPass");
+        when(responseHandler.success(eq(null), eq("Successfully registered: 1, Skipped: 0"), eq(HttpStatusCodes.OK)))
+                .thenAnswer(invocation -> new ApiResponse<>(HttpStatusCodes.OK, invocation.getArgument(1), null));
+
+        ApiResponse<String> response = userService.registerUsersFromCSV(file);
+        assertEquals(HttpStatusCodes.OK, response.getStatus());
+        verify(userRepository).batchInsert(argThat(users -> users.size() == 1));
+    }
+    @Test
+    void testRegisterUsersFromCSV_DecompressedSizeLimit() throws IOException {
+        importProperties.setMaxDecompressedSize(DataSize.ofKilobytes(1));
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write("username,email,password\n".getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < 1000; i++) {
+                gzip.write(("user" + i + ",user" + i + "@example.com,secret\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv.gz", "application/gzip", gzipped.toByteArray());
+        when(responseHandler.error("Decompressed upload is larger than 1024 bytes", HttpStatusCodes.PAYLOAD_TOO_LARGE))
+                .thenReturn(new ApiResponse<>(HttpStatusCodes.PAYLOAD_TOO_LARGE, "Decompressed upload is larger than 1024 bytes", null));
+
+        ApiResponse<String> response = userService.registerUsersFromCSV(file);
+        assertEquals(HttpStatusCodes.PAYLOAD_TOO_LARGE, response.getStatus());
+    }
+    @Test
+    void testRegisterUsersFromCSV_ResumesAfterCheckpoint() throws IOException {
+        String csv = "username,email,password\n"
+                + "a,a@example.com,1\n"
+                + "\"b\nb\",b@example.com,2\n"
+                + "c,c@example.com,3";
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+        String fileHash = ImportCheckpoints.fingerprint(file.getInputStream());
+        ImportCheckpoint checkpoint = new ImportCheckpoint(fileHash, "users.csv", 2, false, Instant.now(), null);
+        when(checkpointRepository.findForUpdate(fileHash)).thenReturn(Optional.of(checkpoint));
+        when(passwordEncoder.encode("3")).thenReturn("encodedPass");
+        when(responseHandler.success(eq(null), eq("Successfully registered: 1, Skipped: 0, Resumed after row: 2"), eq(HttpStatusCodes.OK)))
+                .thenAnswer(invocation -> new ApiResponse<>(HttpStatusCodes.OK, invocation.getArgument(1), null));
+
+        ApiResponse<String> response = userService.registerUsersFromCSV(file);
+        assertEquals("Successfully registered: 1, Skipped: 0, Resumed after row: 2", response.getMessage());
+        verify(userRepository).batchInsert(argThat(users -> users.size() == 1
+                && users.get(0).getEmail().equals("c@example.com")));
+        assertEquals(3, checkpoint.getRowsCommitted());
+        assertTrue(checkpoint.isCompleted());
+        assertNull(checkpoint.getClaimedUntil());
+    }
+    @Test
+    void testRegisterUsersFromCSV_CompletedFileStartsFromFirstRow() throws IOException {
+        String csv = "username,email,password\na,a@example.com,1";
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+        String fileHash = ImportCheckpoints.fingerprint(file.getInputStream());
+        ImportCheckpoint checkpoint = new ImportCheckpoint(fileHash, "users.csv", 1, true, Instant.now(), null);
+        when(checkpointRepository.findForUpdate(fileHash)).thenReturn(Optional.of(checkpoint));
+        when(passwordEncoder.encode("1")).thenReturn("encodedPass");
+        when(responseHandler.success(eq(null), eq("Successfully registered: 1, Skipped: 0"), eq(HttpStatusCodes.OK)))
+                .thenAnswer(invocation -> new ApiResponse<>(HttpStatusCodes.OK, invocation.getArgument(1), null));
+
+        ApiResponse<String> response = userService.registerUsersFromCSV(file);
+        assertEquals("Successfully registered: 1, Skipped: 0", response.getMessage());
+        assertEquals(1, checkpoint.getRowsCommitted());
+        assertTrue(checkpoint.isCompleted());
+    }
+    @Test
+    void testRegisterUsersFromCSV_FileAlreadyBeingImportedIsRejected() throws IOException {
+        String csv = "username,email,password\na,a@example.com,1";
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+        String fileHash = ImportCheckpoints.fingerprint(file.getInputStream());
+        ImportCheckpoint checkpoint = new ImportCheckpoint(fileHash, "users.csv", 0, false, Instant.now(),
+                Instant.now().plusSeconds(60));
+        when(checkpointRepository.findForUpdate(fileHash)).thenReturn(Optional.of(checkpoint));
+
+        assertThrows(ImportInProgressException.class, () -> userService.registerUsersFromCSV(file));
+        verify(userRepository, never()).batchInsert(anyList());
+        verify(checkpointRepository, never()).releaseClaim(anyString());
+    }
+    @Test
+    void testRegisterUsersFromCSV_ExpiredClaimIsTakenOver() throws IOException {
+        String csv = "username,email,password\na,a@example.com,1";
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+        String fileHash = ImportCheckpoints.fingerprint(file.getInputStream());
+        // left behind by an import that crashed
+        ImportCheckpoint checkpoint = new ImportCheckpoint(fileHash, "users.csv", 0, false, Instant.now(),
+                Instant.now().minusSeconds(1));
+        when(checkpointRepository.findForUpdate(fileHash)).thenReturn(Optional.of(checkpoint));
+        when(passwordEncoder.encode("1")).thenReturn("encodedPass");
+        when(responseHandler.success(eq(null), eq("Successfully registered: 1, Skipped: 0"), eq(HttpStatusCodes.OK)))
+                .thenAnswer(invocation -> new ApiResponse<>(HttpStatusCodes.OK, invocation.getArgument(1), null));
+
+        assertEquals(HttpStatusCodes.OK, userService.registerUsersFromCSV(file).getStatus());
+    }
+    @Test
+    void testRegisterUsersFromCSV_CheckpointStaysAtLastCommittedChunk() {
+        importProperties.setBatchSize(2);
+        String csv = "username,email,password\n"
+                + "a,a@example.com,1\n"
+                + "b,b@example.com,2\n"
+                + "c,c@example.com,3\n"
+                + "d,d@example.com,4";
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+        List<Long> checkpoints = new ArrayList<>();
+        when(checkpointRepository.save(any(ImportCheckpoint.class))).thenAnswer(invocation -> {
+            checkpoints.add(invocation.<ImportCheckpoint>getArgument(0).getRowsCommitted());
+            return invocation.getArgument(0);
+        });
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPass");
+        doNothing().doThrow(new DataIntegrityViolationException("duplicate")).when(userRepository).batchInsert(anyList());
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.registerUsersFromCSV(file));
+        // the claim at row 0, then the first chunk; the claim is released for a retry
+        assertEquals(List.of(0L, 2L), checkpoints);
+        verify(checkpointRepository).releaseClaim(anyString());
+    }
+    @Test
+    void testRegisterUsersFromCSV_WriterFailurePropagates() {
+        String csv = "username,email,password\njohn,john@example.com,123456";
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        when(passwordEncoder.encode("123456")).thenReturn("encodedPass");
+        doThrow(new DataIntegrityViolationException("duplicate")).when(userRepository).batchInsert(anyList());
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.registerUsersFromCSV(file));
+    }
+    @Test
+    void testRegisterUsersFromCSV_EmailTakenDuringImportIsSkipped() throws IOException {
+        String csv = "username,email,password\n"
+                + "a,a@example.com,1\n"
+                + "b,b@example.com,2";
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        // free at the dedup stage, taken by the time the chunk is written
+        when(userRepository.findExistingEmails(List.of("a@example.com", "b@example.com")))
+                .thenReturn(List.of())
+                .thenReturn(List.of("B@example.com"));
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPass");
+        List<List<String>> batches = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            batches.add(users.stream().map(User::getEmail).toList());
+            if (batches.size() == 1) {
+                throw new DuplicateKeyException("Duplicate entry 'b@example.com'");
+            }
+            return null;
+        }).when(userRepository).batchInsert(anyList());
+        when(responseHandler.success(eq(null), eq("Successfully registered: 1, Skipped: 1"), eq(HttpStatusCodes.OK)))
+                .thenAnswer(invocation -> new ApiResponse<>(HttpStatusCodes.OK, invocation.getArgument(1), null));
+
+        ApiResponse<String> response = userService.registerUsersFromCSV(file);
+        assertEquals("Successfully registered: 1, Skipped: 1", response.getMessage());
+        assertEquals(List.of(List.of("a@example.com", "b@example.com"), List.of("a@example.com")), batches);
     }
     @Test
     void testGetDashboardData_Success() {
-        String token = "valid.jwt.token";
-        List<User> users = List.of(new User(1L, "john", "john@example.com", "pass"));
+        List<UserResponseDTO> users = List.of(new UserResponseDTO(1L, "john", "john@example.com", "pass"));
         when(jwtUtil.validateToken("jwt-token")).thenReturn(true);
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findPageAfter(0L, Limit.of(100))).thenReturn(users);
 
-        List<UserResponseDTO> dtos = List.of(new UserResponseDTO(1L, "john", "john@example.com", "pass"));
-        when(responseHandler.success(eq(dtos), eq("Fetched all users"), eq(HttpStatusCodes.OK)))
-                .thenReturn(new ApiResponse<>(HttpStatusCodes.OK, "Fetched all users", dtos));
+        UserPageDTO page = new UserPageDTO(users, null);
+        when(responseHandler.success(eq(page), eq("Fetched users"), eq(HttpStatusCodes.OK)))
+                .thenReturn(new ApiResponse<>(HttpStatusCodes.OK, "Fetched users", page));
 
-        ApiResponse<List<UserResponseDTO>> response = userService.getDashboardData("Bearer jwt-token");
+        ApiResponse<UserPageDTO> response = userService.getDashboardData("Bearer jwt-token", null, null);
         assertEquals(HttpStatusCodes.OK, response.getStatus());
-        assertEquals("Fetched all users", response.getMessage());
+        assertEquals("Fetched users", response.getMessage());
+        verify(userRepository, never()).findAll();
+    }
+    @Test
+    void testGetDashboardData_FullPageReturnsNextCursor() {
+        List<UserResponseDTO> users = List.of(
+                new UserResponseDTO(11L, "a", "a@example.com", "pass"),
+                new UserResponseDTO(14L, "b", "b@example.com", "pass"));
+        when(jwtUtil.validateToken("jwt-token")).thenReturn(true);
+        when(userRepository.findPageAfter(10L, Limit.of(2))).thenReturn(users);
+        when(responseHandler.success(any(UserPageDTO.class), eq("Fetched users"), eq(HttpStatusCodes.OK)))
+                .thenAnswer(invocation -> new ApiResponse<>(HttpStatusCodes.OK, "Fetched users", invocation.getArgument(0)));
+
+        ApiResponse<UserPageDTO> response = userService.getDashboardData("Bearer jwt-token", 10L, 2);
+        assertEquals(14L, response.getData().nextCursor());
+        assertEquals(2, response.getData().users().size());
+    }
+    @Test
+    void testGetDashboardData_ReusesClaimsVerifiedByFilter() {
+        Claims claims = Jwts.claims().setSubject("john@example.com");
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken("jwt-token", claims));
+        try {
+            UserPageDTO page = new UserPageDTO(List.of(), null);
+            when(userRepository.findPageAfter(0L, Limit.of(100))).thenReturn(List.of());
+            when(responseHandler.success(eq(page), eq("Fetched users"), eq(HttpStatusCodes.OK)))
+                    .thenReturn(new ApiResponse<>(HttpStatusCodes.OK, "Fetched users", page));
+
+            ApiResponse<UserPageDTO> response = userService.getDashboardData("Bearer jwt-token", null, null);
+            assertEquals(HttpStatusCodes.OK, response.getStatus());
+            verify(jwtUtil, never()).validateToken(anyString());
+            verify(jwtUtil, never()).parseToken(anyString());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
     }
     @Test
     void testDeleteUser_Success() {
-        User user = new User(1L, "john", "john@example.com", "pass");
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        DeleteUserResponseDTO dto = new DeleteUserResponseDTO(1L, "john", "john@example.com", "pass");
+        when(userRepository.deleteUserById(1L)).thenReturn(1);
+        DeleteUserResponseDTO dto = new DeleteUserResponseDTO(1L, null, null, null);
         when(responseHandler.success(eq(dto), eq("User deleted successfully"), eq(HttpStatusCodes.OK)))
                 .thenReturn(new ApiResponse<>(HttpStatusCodes.OK, "User deleted successfully", dto));
 
         ApiResponse<DeleteUserResponseDTO> response = userService.deleteUser(1L);
         assertEquals(HttpStatusCodes.OK, response.getStatus());
+        verify(userRepository, never()).findById(any());
+        verify(userCache).evict(1L, null);
     }
     @Test
     void testEditUserById_Success() {
         EditUserRequestDTO dto = new EditUserRequestDTO("johnny", "johnny@example.com", "newpass");
-        User user = new User(1L, "john", "john@example.com", "oldpass");
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(passwordEncoder.encode("newpass")).thenReturn("hashed");
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.updateById(1L, "johnny", "johnny@example.com", "hashed")).thenReturn(1);
 
         EditUserResponseDTO responseDto = new EditUserResponseDTO(1L, "johnny", "johnny@example.com");
         when(responseHandler.success(eq(responseDto), eq("User updated successfully"), eq(HttpStatusCodes.OK)))
@@ -225,6 +658,8 @@ class UserServiceImplTest {
 
         ApiResponse<EditUserResponseDTO> response = userService.editUserById(1L, dto);
         assertEquals(HttpStatusCodes.OK, response.getStatus());
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).save(any(User.class));
     }
     @Test
     void testGetUserById_Success() {
@@ -238,14 +673,44 @@ class UserServiceImplTest {
         assertEquals(HttpStatusCodes.OK, response.getStatus());
     }
 
+    @Test
+    void testGetUsersByIds_RequestOrderWithMissingMarkers() {
+        when(userRepository.findViewsByIdIn(any())).thenReturn(List.of(
+                new ViewUserResponseDTO(3L, "carol", "carol@example.com"),
+                new ViewUserResponseDTO(1L, "alice", "alice@example.com")));
+        when(responseHandler.success(anyList(), eq("Fetched 2 of 3 users"), eq(HttpStatusCodes.OK)))
+                .thenAnswer(invocation -> new ApiResponse<>(HttpStatusCodes.OK, invocation.getArgument(1), invocation.getArgument(0)));
+
+        ApiResponse<List<UserLookupDTO>> response = userService.getUsersByIds(List.of(3L, 2L, 1L, 3L));
+
+        assertEquals(List.of(
+                new UserLookupDTO(3L, true, new ViewUserResponseDTO(3L, "carol", "carol@example.com")),
+                new UserLookupDTO(2L, false, null),
+                new UserLookupDTO(1L, true, new ViewUserResponseDTO(1L, "alice", "alice@example.com")),
+                new UserLookupDTO(3L, true, new ViewUserResponseDTO(3L, "carol", "carol@example.com"))),
+                response.getData());
+        // duplicates are queried once
+        verify(userRepository).findViewsByIdIn(argThat(ids -> ids.size() == 3));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void testGetUsersByIds_TooManyIds() {
+        lookupProperties.setMaxIds(2);
+        when(responseHandler.error("At most 2 ids may be requested at once", HttpStatusCodes.BAD_REQUEST))
+                .thenReturn(new ApiResponse<>(HttpStatusCodes.BAD_REQUEST, "At most 2 ids may be requested at once", null));
+
+        ApiResponse<List<UserLookupDTO>> response = userService.getUsersByIds(List.of(1L, 2L, 3L));
+        assertEquals(HttpStatusCodes.BAD_REQUEST, response.getStatus());
+        verify(userRepository, never()).findViewsByIdIn(any());
+    }
+
     @Test
     void testPatchUserById_Success() {
         PatchUserRequestDTO dto = new PatchUserRequestDTO("newname", null, null);
-        User user = new User(1L, "john", "john@example.com", "pass");
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.patchById(1L, "newname", null, null)).thenReturn(1);
 
-        EditUserResponseDTO responseDto = new EditUserResponseDTO(1L, "newname", "john@example.com");
+        EditUserResponseDTO responseDto = new EditUserResponseDTO(1L, "newname", null);
         when(responseHandler.success(eq(responseDto), eq("User patched successfully"), eq(HttpStatusCodes.OK)))
                 .thenReturn(new ApiResponse<>(HttpStatusCodes.OK, "User patched successfully", responseDto));
 
@@ -263,6 +728,17 @@ class UserServiceImplTest {
         assertNull(response.getBody().getData());
     }
 
+    @Test
+    void testHandleDataIntegrityViolation_OtherConstraint() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Duplicate entry 'abc' for key 'import_checkpoints.PRIMARY'", "23000", 1062));
+        ResponseEntity<ApiResponse<Object>> response = handler.handleDataIntegrityViolation(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Request conflicts with existing data", response.getBody().getMessage());
+    }
+
     @Test
     void testHandleInvalidSignupDataException() {
         GlobalExceptionHandler handler = new GlobalExceptionHandler();
@@ -274,6 +750,15 @@ class UserServiceImplTest {
         assertNull(response.getBody().getData());
     }
     @Test
+    void testHandleServiceBusyException() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+        ResponseEntity<ApiResponse<Object>> response = handler.handleServiceBusy(new ServiceBusyException("Server is busy", 2));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst("Retry-After"));
+        assertEquals("Server is busy", response.getBody().getMessage());
+    }
+    @Test
     void testRegisterUsersFromCSV_IOException() throws IOException {
         MultipartFile file = mock(MultipartFile.class);
         when(file.getInputStream()).thenThrow(new IOException("error"));
@@ -298,7 +783,7 @@ class UserServiceImplTest {
         when(responseHandler.error("Invalid or missing token", HttpStatusCodes.UNAUTHORIZED))
                 .thenReturn(new ApiResponse<>(HttpStatusCodes.UNAUTHORIZED, "Invalid or missing token", null));
 
-        ApiResponse<List<UserResponseDTO>> response = userService.getDashboardData(null);
+        ApiResponse<UserPageDTO> response = userService.getDashboardData(null, null, null);
         assertEquals(HttpStatusCodes.UNAUTHORIZED, response.getStatus());
     }
     @Test
@@ -307,7 +792,7 @@ class UserServiceImplTest {
         when(responseHandler.error("Invalid or missing token", HttpStatusCodes.UNAUTHORIZED))
                 .thenReturn(new ApiResponse<>(HttpStatusCodes.UNAUTHORIZED, "Invalid or missing token", null));
 
-        ApiResponse<List<UserResponseDTO>> response = userService.getDashboardData("Bearer invalid");
+        ApiResponse<UserPageDTO> response = userService.getDashboardData("Bearer invalid", null, null);
         assertEquals(HttpStatusCodes.UNAUTHORIZED, response.getStatus());
     }
     @Test
@@ -321,7 +806,7 @@ class UserServiceImplTest {
     }
     @Test
     void testDeleteUser_NotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.deleteUserById(1L)).thenReturn(0);
         when(responseHandler.error("User not found with ID: 1", HttpStatusCodes.NOT_FOUND))
                 .thenReturn(new ApiResponse<>(HttpStatusCodes.NOT_FOUND, "User not found with ID: 1", null));
 
@@ -331,7 +816,8 @@ class UserServiceImplTest {
     @Test
     void testEditUserById_NotFound() {
         EditUserRequestDTO dto = new EditUserRequestDTO("johnny", "johnny@example.com", "newpass");
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(passwordEncoder.encode("newpass")).thenReturn("hashed");
+        when(userRepository.updateById(1L, "johnny", "johnny@example.com", "hashed")).thenReturn(0);
         when(responseHandler.error("User not found", HttpStatusCodes.NOT_FOUND))
                 .thenReturn(new ApiResponse<>(HttpStatusCodes.NOT_FOUND, "User not found", null));
 
@@ -339,9 +825,27 @@ class UserServiceImplTest {
         assertEquals(HttpStatusCodes.NOT_FOUND, response.getStatus());
     }
     @Test
+    void testEditUserById_TakenEmail() {
+        EditUserRequestDTO dto = new EditUserRequestDTO("johnny", "taken@example.com", "newpass");
+        when(passwordEncoder.encode("newpass")).thenReturn("hashed");
+        when(userRepository.updateById(1L, "johnny", "taken@example.com", "hashed")).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new SQLException("Unique index or primary key violation", "23505", 23505)));
+
+        assertThrows(UserAlreadyExistsException.class, () -> userService.editUserById(1L, dto));
+        verify(emailFilter, never()).add(anyString());
+    }
+    @Test
+    void testPatchUserById_TakenEmail() {
+        PatchUserRequestDTO dto = new PatchUserRequestDTO(null, "taken@example.com", null);
+        when(userRepository.patchById(1L, null, "taken@example.com", null)).thenThrow(new DuplicateKeyException("duplicate"));
+
+        assertThrows(UserAlreadyExistsException.class, () -> userService.patchUserById(1L, dto));
+    }
+    @Test
     void testPatchUserById_NotFound() {
         PatchUserRequestDTO dto = new PatchUserRequestDTO("name", "email", "pass");
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(passwordEncoder.encode("pass")).thenReturn("hashed");
+        when(userRepository.patchById(1L, "name", "email", "hashed")).thenReturn(0);
         when(responseHandler.error("User not found", HttpStatusCodes.NOT_FOUND))
                 .thenReturn(new ApiResponse<>(HttpStatusCodes.NOT_FOUND, "User not found", null));
 
@@ -388,7 +892,7 @@ class UserServiceImplTest {
         when(responseHandler.error("Invalid or missing token", HttpStatusCodes.UNAUTHORIZED))
                 .thenReturn(new ApiResponse<>(HttpStatusCodes.UNAUTHORIZED, "Invalid or missing token", null));
 
-        ApiResponse<List<UserResponseDTO>> response = userService.getDashboardData("Token invalid");
+        ApiResponse<UserPageDTO> response = userService.getDashboardData("Token invalid", null, null);
         assertEquals(HttpStatusCodes.UNAUTHORIZED, response.getStatus());
     }
     @Test
@@ -396,7 +900,7 @@ class UserServiceImplTest {
         when(responseHandler.error("Invalid or missing token", HttpStatusCodes.UNAUTHORIZED))
                 .thenReturn(new ApiResponse<>(HttpStatusCodes.UNAUTHORIZED, "Invalid or missing token", null));
 
-        ApiResponse<List<UserResponseDTO>> response = userService.getDashboardData("Token invalid");
+        ApiResponse<UserPageDTO> response = userService.getDashboardData("Token invalid", null, null);
         assertEquals(HttpStatusCodes.UNAUTHORIZED, response.getStatus());
     }
     @Test
@@ -433,7 +937,7 @@ class UserServiceImplTest {
         String csv = "username,email,password\njohn,john@example.com,123456";
         MockMultipartFile file = new MockMultipartFile("file", "duplicate.csv", "text/csv", csv.getBytes());
 
-        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(new User()));
+        when(userRepository.findExistingEmails(List.of("john@example.com"))).thenReturn(List.of("john@example.com"));
 
         when(responseHandler.success(eq(null), eq("Successfully registered: 0, Skipped: 1"), eq(HttpStatusCodes.OK)))
                 .thenReturn(new ApiResponse<>(HttpStatusCodes.OK, "Successfully registered: 0, Skipped: 1", null));
@@ -444,18 +948,33 @@ class UserServiceImplTest {
     @Test
     void testPatchUserById_PatchEmailAndPassword() {
         PatchUserRequestDTO dto = new PatchUserRequestDTO(null, "new@example.com", "newpass");
-        User user = new User(1L, "john", "john@example.com", "oldpass");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        doReturn("john@example.com").when(userCache).peekEmail(1L);
         when(passwordEncoder.encode("newpass")).thenReturn("encoded");
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.patchById(1L, null, "new@example.com", "encoded")).thenReturn(1);
+
+        EditUserResponseDTO responseDto = new EditUserResponseDTO(1L, null, "new@example.com");
+        when(responseHandler.success(eq(responseDto), eq("User patched successfully"), eq(HttpStatusCodes.OK)))
+                .thenReturn(new ApiResponse<>(HttpStatusCodes.OK, "User patched successfully", responseDto));
+
+        ApiResponse<EditUserResponseDTO> response = userService.patchUserById(1L, dto);
+        assertEquals(HttpStatusCodes.OK, response.getStatus());
+        verify(userCache).evict(1L, "john@example.com");
+    }
+
+    @Test
+    void testPatchUserById_NoFields_ChecksExistenceOnly() {
+        PatchUserRequestDTO dto = new PatchUserRequestDTO(" ", null, "");
+        when(userRepository.existsById(1L)).thenReturn(true);
 
-        EditUserResponseDTO responseDto = new EditUserResponseDTO(1L, "john", "new@example.com");
+        EditUserResponseDTO responseDto = new EditUserResponseDTO(1L, null, null);
         when(responseHandler.success(eq(responseDto), eq("User patched successfully"), eq(HttpStatusCodes.OK)))
                 .thenReturn(new ApiResponse<>(HttpStatusCodes.OK, "User patched successfully", responseDto));
 
         ApiResponse<EditUserResponseDTO> response = userService.patchUserById(1L, dto);
         assertEquals(HttpStatusCodes.OK, response.getStatus());
+        verify(userRepository, never()).patchById(any(), any(), any(), any());
+        verify(passwordEncoder, never()).encode(any());
     }
 
 
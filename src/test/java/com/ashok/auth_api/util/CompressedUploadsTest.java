@@ -0,0 +1,90 @@
+package com.ashok.auth_api.util;
+
+import com.ashok.auth_api.utils.CompressedUploads;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedUploadsTest {
+
+    private static final String CSV = "username,email,password\njohn,john@example.com,1\n";
+
+    @Test
+    void testOpen_GunzipsAndStripsSuffix() throws IOException {
+        try (CompressedUploads.Entry entry = open(gzip(CSV.getBytes(StandardCharsets.UTF_8)), "users.csv.gz", 1024)) {
+            assertEquals("users.csv", entry.name());
+            assertEquals(CSV, new String(entry.content().readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testOpen_ReadsFirstMatchingZipEntry() throws IOException {
+        byte[] zip = zip("__MACOSX/._users.csv", "junk", "readme.txt", "ignore me", "data/users.csv", CSV);
+
+        try (CompressedUploads.Entry entry = open(zip, "upload.ZIP", 1024)) {
+            assertEquals("data/users.csv", entry.name());
+            assertEquals(CSV, new String(entry.content().readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testOpen_ZipWithoutMatchingEntryFails() throws IOException {
+        byte[] zip = zip("readme.txt", "nothing here");
+
+        ZipException e = assertThrows(ZipException.class, () -> open(zip, "upload.zip", 1024));
+        assertEquals("Archive contains no .csv file", e.getMessage());
+    }
+
+    @Test
+    void testOpen_StopsReadingPastDecompressedLimit() throws IOException {
+        // 8 MB of zeros compresses to a few KB
+        byte[] bomb = gzip(new byte[8 * 1024 * 1024]);
+        assertTrue(bomb.length < 64 * 1024);
+
+        try (CompressedUploads.Entry entry = open(bomb, "users.csv.gz", 1024 * 1024)) {
+            assertThrows(CompressedUploads.DecompressedSizeExceededException.class, () -> entry.content().readAllBytes());
+        }
+    }
+
+    @Test
+    void testOpen_PlainFilePassesThrough() throws IOException {
+        InputStream in = new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8));
+        try (CompressedUploads.Entry entry = CompressedUploads.open(in, "users.csv", 1, ".csv")) {
+            assertSame(in, entry.content());
+        }
+    }
+
+    private static CompressedUploads.Entry open(byte[] data, String fileName, long maxBytes) throws IOException {
+        return CompressedUploads.open(new ByteArrayInputStream(data), fileName, maxBytes, ".csv");
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] zip(String... namesAndContents) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+                zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+}
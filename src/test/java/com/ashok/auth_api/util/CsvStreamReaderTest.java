@@ -0,0 +1,113 @@
+package com.ashok.auth_api.util;
+
+import com.ashok.auth_api.utils.CsvStreamReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvStreamReaderTest {
+
+    @Test
+    void testNext_MapsColumnsByHeaderName() throws IOException {
+        String csv = "Email, extra ,USERNAME,password\r\n"
+                + "john@example.com,ignored,john,secret\r\n"
+                + "jane@example.com,,jane,pw\r\n";
+
+        assertEquals(List.of(
+                List.of("john", "john@example.com", "secret"),
+                List.of("jane", "jane@example.com", "pw")), readAll(csv, 64));
+    }
+
+    @Test
+    void testNext_HandlesQuotedCommasEscapedQuotesAndLineBreaks() throws IOException {
+        String csv = "username,email,password\n"
+                + "\"Doe, John\",john@example.com,\"say \"\"hi\"\"\"\n"
+                + "\"multi\nline\",jane@example.com,\"\"\n";
+
+        assertEquals(List.of(
+                List.of("Doe, John", "john@example.com", "say \"hi\""),
+                List.of("multi\nline", "jane@example.com", "")), readAll(csv, 64));
+    }
+
+    @Test
+    void testNext_DecodesUtf8SplitAcrossBufferRefills() throws IOException {
+        String csv = "﻿username,email,password\n"
+                + "José Müller 你好,jose@example.com,päss\n"
+                + "\"quoted éééé\",q@example.com,x";
+
+        // a tiny buffer forces fields and multi-byte characters to straddle refills
+        for (int bufferSize = 4; bufferSize <= 16; bufferSize++) {
+            assertEquals(List.of(
+                    List.of("José Müller 你好", "jose@example.com", "päss"),
+                    List.of("quoted éééé", "q@example.com", "x")), readAll(csv, bufferSize));
+        }
+    }
+
+    @Test
+    void testNext_ShortRecordReturnsNullForMissingColumns() throws IOException {
+        List<List<String>> rows = readAll("username,email,password\njohn,john@example.com\n\n", 64);
+
+        assertEquals(Arrays.asList("john", "john@example.com", null), rows.get(0));
+        assertEquals(Arrays.asList("", null, null), rows.get(1));
+        assertEquals(2, rows.size());
+    }
+
+    @Test
+    void testOpen_MissingColumnAndUnterminatedQuoteFail() {
+        CsvStreamReader.CsvFormatException missing = assertThrows(CsvStreamReader.CsvFormatException.class,
+                () -> readAll("username,mail,password\n", 64));
+        assertTrue(missing.getMessage().contains("'email'"));
+
+        CsvStreamReader.CsvFormatException unterminated = assertThrows(CsvStreamReader.CsvFormatException.class,
+                () -> readAll("username,email,password\n\"john,john@example.com,pw\n", 64));
+        assertTrue(unterminated.getMessage().contains("line 2"));
+    }
+
+    @Test
+    void testNext_FieldLongerThanTheLimitFails() throws IOException {
+        String tooLong = "x".repeat(CsvStreamReader.MAX_FIELD_LENGTH + 1);
+
+        // spilled across refills, in place in a large buffer, quoted, and in the header
+        for (String csv : List.of(
+                "username,email,password\njohn," + tooLong + ",pw\n",
+                "username,email,password\n\"" + tooLong + "\",john@example.com,pw\n",
+                "username,email,password," + tooLong + "\n")) {
+            for (int bufferSize : new int[]{64, 4 * CsvStreamReader.MAX_FIELD_LENGTH}) {
+                CsvStreamReader.CsvFormatException e = assertThrows(CsvStreamReader.CsvFormatException.class,
+                        () -> readAll(csv, bufferSize));
+                assertTrue(e.getMessage().contains("longer than"), e.getMessage());
+            }
+        }
+
+        // columns nobody asked for are not buffered, so their length does not matter
+        String skipped = "username,extra,email,password\njohn," + tooLong + ",john@example.com,pw\n";
+        assertEquals(List.of(List.of("john", "john@example.com", "pw")), readAll(skipped, 64));
+        String atLimit = "x".repeat(CsvStreamReader.MAX_FIELD_LENGTH);
+        assertEquals(List.of(List.of(atLimit, "john@example.com", "pw")),
+                readAll("username,email,password\n" + atLimit + ",john@example.com,pw\n", 64));
+    }
+
+    @Test
+    void testOpen_EmptyInputHasNoRecords() throws IOException {
+        assertTrue(readAll("", 64).isEmpty());
+    }
+
+    private static List<List<String>> readAll(String csv, int bufferSize) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (CsvStreamReader reader = new CsvStreamReader(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), bufferSize,
+                "username", "email", "password")) {
+            while (reader.next()) {
+                rows.add(Arrays.asList(reader.get(0), reader.get(1), reader.get(2)));
+            }
+        }
+        return rows;
+    }
+}
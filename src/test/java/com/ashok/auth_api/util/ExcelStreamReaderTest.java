@@ -0,0 +1,101 @@
+package com.ashok.auth_api.util;
+
+import com.ashok.auth_api.utils.ExcelStreamReader;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExcelStreamReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadFirstSheet_ReturnsRowsWithGapsAsNull() throws Exception {
+        File file = tempDir.resolve("users.xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("username");
+            header.createCell(1).setCellValue("email");
+            header.createCell(2).setCellValue("password");
+
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("john");
+            row.createCell(2).setCellValue(123456);
+            workbook.write(out);
+        }
+
+        List<List<String>> rows = new ArrayList<>();
+        ExcelStreamReader.readFirstSheet(file, rows::add);
+
+        assertEquals(2, rows.size());
+        assertEquals(List.of("username", "email", "password"), rows.get(0));
+        assertEquals(Arrays.asList("john", null, "123456"), rows.get(1));
+    }
+
+    @Test
+    void testReadFirstSheet_ReadsSharedStringsLongerThanOneReadWindow() throws Exception {
+        // 32767 characters is Excel's limit; three UTF-8 bytes each is more than one 64 KB read
+        String longest = "€".repeat(32_767);
+        File file = tempDir.resolve("long.xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            for (int i = 0; i < 3; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("before" + i);
+                row.createCell(1).setCellValue(longest);
+                row.createCell(2).setCellValue("after" + i);
+            }
+            workbook.write(out);
+        }
+
+        List<List<String>> rows = new ArrayList<>();
+        ExcelStreamReader.readFirstSheet(file, rows::add);
+
+        assertEquals(3, rows.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(List.of("before" + i, longest, "after" + i), rows.get(i));
+        }
+    }
+
+    @Test
+    void testReadFirstSheet_ReportsProgressThroughTheSheet() throws Exception {
+        File file = tempDir.resolve("progress.xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            for (int i = 0; i < 2_000; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("user" + i);
+                row.createCell(1).setCellValue("user" + i + "@example.com");
+            }
+            workbook.write(out);
+        }
+
+        List<long[]> reports = new ArrayList<>();
+        ExcelStreamReader.readFirstSheet(file, row -> {
+        }, (bytesRead, totalBytes) -> reports.add(new long[]{bytesRead, totalBytes}));
+
+        assertTrue(reports.size() > 1);
+        long totalBytes = reports.get(0)[1];
+        // the uncompressed sheet, larger than the whole zipped file
+        assertTrue(totalBytes > file.length());
+        for (int i = 1; i < reports.size(); i++) {
+            assertTrue(reports.get(i)[0] > reports.get(i - 1)[0]);
+            assertEquals(totalBytes, reports.get(i)[1]);
+        }
+        assertEquals(totalBytes, reports.get(reports.size() - 1)[0]);
+    }
+}
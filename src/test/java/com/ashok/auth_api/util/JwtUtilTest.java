@@ -1,6 +1,8 @@
 package com.ashok.auth_api.util;
 
 import com.ashok.auth_api.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,4 +38,32 @@ class JwtUtilTest {
         String invalidToken = "invalid.token.value";
         assertFalse(jwtUtil.validateToken(invalidToken));
     }
+
+    @Test
+    void testParseToken_ReturnsVerifiedClaims() {
+        String token = jwtUtil.generateToken("ashok");
+        Claims claims = jwtUtil.parseToken(token);
+        assertEquals("ashok", claims.getSubject());
+        assertNotNull(claims.getExpiration());
+    }
+
+    @Test
+    void testParseToken_CachedTokenIsNotParsedAgain() {
+        JwtUtil cachingJwtUtil = new JwtUtil(100);
+        String token = cachingJwtUtil.generateToken("ashok");
+
+        Claims first = cachingJwtUtil.parseToken(token);
+        assertSame(first, cachingJwtUtil.parseToken(token));
+        assertNotSame(first, jwtUtil.parseToken(token));
+    }
+
+    @Test
+    void testParseToken_CacheDoesNotAcceptTamperedToken() {
+        JwtUtil cachingJwtUtil = new JwtUtil(100);
+        String token = cachingJwtUtil.generateToken("ashok");
+        cachingJwtUtil.parseToken(token);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThrows(JwtException.class, () -> cachingJwtUtil.parseToken(tampered));
+    }
 }
@@ -0,0 +1,104 @@
+package com.ashok.auth_api.util;
+
+import com.ashok.auth_api.config.MethodTimingInterceptor;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodTimingInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    interface Greeter {
+        String greet(String name);
+    }
+
+    static class DefaultGreeter implements Greeter {
+        @Override
+        public String greet(String name) {
+            if (name == null) {
+                throw new IllegalArgumentException("name");
+            }
+            return "hi " + name;
+        }
+    }
+
+    @Test
+    void testInvoke_RecordsSuccessAndErrorPerMethod() {
+        Greeter greeter = proxy(new DefaultGreeter());
+
+        assertEquals("hi john", greeter.greet("john"));
+        assertEquals("hi jane", greeter.greet("jane"));
+        assertThrows(IllegalArgumentException.class, () -> greeter.greet(null));
+
+        Timer success = registry.get("test.invocations")
+                .tags("class", "DefaultGreeter", "method", "greet", "outcome", "success").timer();
+        Timer error = registry.get("test.invocations")
+                .tags("class", "DefaultGreeter", "method", "greet", "outcome", "error").timer();
+        assertEquals(2, success.count());
+        assertEquals(1, error.count());
+    }
+
+    @Test
+    void testInvoke_DoesNotAllocateOnceWarm() throws Throwable {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        MethodTimingInterceptor interceptor = new MethodTimingInterceptor("test.invocations", () -> registry);
+        Callable<String> target = () -> "ok";
+        MethodInvocation invocation = new FixedInvocation(target, Callable.class.getMethod("call"));
+
+        for (int i = 0; i < 20_000; i++) {
+            interceptor.invoke(invocation);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            interceptor.invoke(invocation);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // a single boxed value per call would already be well over 1 MB
+        assertTrue(allocated < 64 * 1024, "allocated " + allocated + " bytes");
+    }
+
+    private Greeter proxy(Greeter target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvice(new MethodTimingInterceptor("test.invocations", () -> registry));
+        return (Greeter) factory.getProxy();
+    }
+
+
+    /** Reusable invocation, so the only work per call is the interceptor's own. */
+    private record FixedInvocation(Callable<String> target, java.lang.reflect.Method method) implements MethodInvocation {
+
+        @Override
+        public java.lang.reflect.Method getMethod() {
+            return method;
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return new Object[0];
+        }
+
+        @Override
+        public Object proceed() throws Throwable {
+            return target.call();
+        }
+
+        @Override
+        public Object getThis() {
+            return target;
+        }
+
+        @Override
+        public java.lang.reflect.AccessibleObject getStaticPart() {
+            return method;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.ashok.auth_api.util;
+
+import com.ashok.auth_api.config.ServerTimingFilter;
+import com.ashok.auth_api.config.ServerTimingProperties;
+import com.ashok.auth_api.utils.RequestTimings;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingFilterTest {
+
+    private final ServerTimingProperties properties = new ServerTimingProperties();
+    private final ServerTimingFilter filter = new ServerTimingFilter(properties);
+
+    @Test
+    void testDoFilter_AddsPhasesToHeaderAndKeepsBody() throws Exception {
+        properties.setEnabled(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/users/1"), response, new MockFilterChain(timedServlet()));
+
+        String header = response.getHeader(ServerTimingFilter.HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("jwt;dur="), header);
+        assertTrue(header.contains("hash;dur="), header);
+        assertTrue(header.contains("ser;dur="), header);
+        assertTrue(header.contains("total;dur="), header);
+        assertFalse(header.contains("db;dur="), header);
+        assertEquals("{\"status\":200}", response.getContentAsString());
+        assertNull(RequestTimings.current());
+    }
+
+    @Test
+    void testDoFilter_NoHeaderUnlessEnabled() throws Exception {
+        properties.setLogThreshold(Duration.ofSeconds(1));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/users/1"), response, new MockFilterChain(timedServlet()));
+
+        assertNull(response.getHeader(ServerTimingFilter.HEADER));
+        assertEquals("{\"status\":200}", response.getContentAsString());
+    }
+
+    @Test
+    void testDoFilter_LogOnlyTimesRequestWithoutBufferingBody() throws Exception {
+        properties.setLogThreshold(Duration.ofSeconds(1));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<ServletResponse> seen = new AtomicReference<>();
+        AtomicReference<RequestTimings> timings = new AtomicReference<>();
+
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/users/1"), response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                seen.set(res);
+                timings.set(RequestTimings.current());
+                res.getWriter().write("{\"status\":200}");
+            }
+        }));
+
+        assertSame(response, seen.get());
+        assertNotNull(timings.get());
+        assertEquals("{\"status\":200}", response.getContentAsString());
+    }
+
+    @Test
+    void testDoFilter_NoHeaderOnPublicEndpoints() throws Exception {
+        properties.setEnabled(true);
+        for (String path : List.of("/api/login", "/api/signup")) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("POST", path), response, new MockFilterChain(timedServlet()));
+
+            assertNull(response.getHeader(ServerTimingFilter.HEADER), path);
+            assertEquals("{\"status\":200}", response.getContentAsString());
+        }
+    }
+
+    @Test
+    void testDoFilter_SkipsNonApiAndStreamingRequests() throws Exception {
+        properties.setEnabled(true);
+        MockHttpServletResponse actuator = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), actuator, new MockFilterChain());
+        MockHttpServletResponse stream = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users/stream"), stream, new MockFilterChain());
+
+        assertNull(actuator.getHeader(ServerTimingFilter.HEADER));
+        assertNull(stream.getHeader(ServerTimingFilter.HEADER));
+    }
+
+    @Test
+    void testEnter_CountsNestedPhaseOnce() {
+        RequestTimings timings = new RequestTimings();
+
+        assertTrue(timings.enter(RequestTimings.Phase.SERVICE));
+        assertFalse(timings.enter(RequestTimings.Phase.SERVICE));
+        timings.leave(RequestTimings.Phase.SERVICE);
+        timings.exit(RequestTimings.Phase.SERVICE, 5_000_000);
+
+        assertEquals(1, timings.getCount(RequestTimings.Phase.SERVICE));
+        assertTrue(timings.toServerTimingHeader(timings.getStartNanos())
+                .startsWith("svc;dur=5.00;desc=\"Service layer\""));
+    }
+
+    private static HttpServlet timedServlet() {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                RequestTimings.record(RequestTimings.Phase.JWT, System.nanoTime());
+                // BCrypt runs on another executor; the decorator carries the request along
+                CompletableFuture.runAsync(RequestTimings.propagate(
+                        () -> RequestTimings.record(RequestTimings.Phase.HASH, System.nanoTime()))).join();
+                RequestTimings.markSerializationStart();
+                res.getWriter().write("{\"status\":200}");
+            }
+        };
+    }
+}
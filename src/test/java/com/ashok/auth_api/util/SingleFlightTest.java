@@ -0,0 +1,110 @@
+package com.ashok.auth_api.util;
+
+import com.ashok.auth_api.utils.SingleFlight;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofSeconds(10));
+        Future<String> leader = callers.submit(() -> flights.execute("k", () -> blockingLoad("value")));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            followers.add(callers.submit(() -> flights.execute("k", () -> blockingLoad("other"))));
+        }
+        awaitShared(flights, 8);
+        release.countDown();
+
+        assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("value", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, flights.getExecuted());
+        assertEquals(0, flights.getInFlight());
+
+        // nothing is remembered once the call has completed
+        assertEquals("fresh", flights.execute("k", () -> "fresh"));
+    }
+
+    @Test
+    void testFailureIsRethrownToEveryCaller() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofSeconds(10));
+        Future<String> leader = callers.submit(() -> flights.execute("k", () -> {
+            blockingLoad("unused");
+            throw new IllegalStateException("database down");
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<String> follower = callers.submit(() -> flights.execute("k", () -> "unused"));
+        awaitShared(flights, 1);
+        release.countDown();
+
+        for (Future<String> caller : List.of(leader, follower)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> caller.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertEquals("database down", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void testWaitIsBoundedAndForgetStartsANewCall() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofMillis(50));
+        callers.submit(() -> flights.execute("k", () -> blockingLoad("slow")));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        assertThrows(TimeoutException.class, () -> flights.execute("k", () -> "unused"));
+        assertEquals(1, flights.getTimedOut());
+
+        flights.forget("k");
+        assertEquals("new", flights.execute("k", () -> "new"));
+        assertEquals(2, flights.getExecuted());
+    }
+
+    private String blockingLoad(String value) {
+        loads.incrementAndGet();
+        loading.countDown();
+        try {
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static void awaitShared(SingleFlight<?, ?> flights, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flights.getShared() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, flights.getShared());
+    }
+}